@@ -0,0 +1,61 @@
+package com.kayz.heac.bench;
+
+import com.kayz.heac.bench.cache.EventCacheBenchmark;
+import com.kayz.heac.bench.codec.EventSerializerBenchmark;
+import com.kayz.heac.bench.heat.HeatDecayBenchmark;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 一次跑完全部基准并把结果写成 JSON，便于在改动前后各跑一次做对比 (可以直接丢进 jmh.morethan.io)
+ * <p>
+ * 运行：java -cp heac-bench/target/benchmarks.jar com.kayz.heac.bench.BenchmarkMain [输出目录]
+ * <br>
+ * 输出：serializer.json、heat-decay.json，以及每个线程数一份 cache-t{N}.json。默认输出到 jmh-results/
+ * <p>
+ * 只跑单个基准或调整参数时直接用 JMH 自带的命令行：java -jar benchmarks.jar EventCacheBenchmark -t 16 -rf json
+ */
+public final class BenchmarkMain {
+
+    private static final int[] CACHE_THREADS = {1, 4, 16, 64};
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path outputDir = Path.of(args.length > 0 ? args[0] : "jmh-results");
+        Files.createDirectories(outputDir);
+
+        run(new OptionsBuilder()
+                .include(EventSerializerBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(outputDir.resolve("serializer.json").toString())
+                .build());
+
+        run(new OptionsBuilder()
+                .include(HeatDecayBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(outputDir.resolve("heat-decay.json").toString())
+                .build());
+
+        for (int threads : CACHE_THREADS) {
+            run(new OptionsBuilder()
+                    .include(EventCacheBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(outputDir.resolve("cache-t" + threads + ".json").toString())
+                    .build());
+        }
+    }
+
+    private static void run(Options options) throws RunnerException {
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.kayz.heac.bench.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.fppt.jedismock.RedisServer;
+import com.kayz.heac.event.cache.EventCacheManager;
+import com.kayz.heac.event.cache.EventTtlPolicy;
+import com.kayz.heac.event.cache.LocalCacheFactory;
+import com.kayz.heac.event.config.AsyncConfig;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.config.RedisConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * 不启动 Spring 容器，手工装配一个完整的 EventCacheManager：
+ * 进程内 Redis (jedis-mock) + Lettuce + Redisson + 与线上相同的序列化器和线程池配置，DB 使用 {@link StubEventMapper}
+ */
+final class CacheBenchFixture implements AutoCloseable {
+
+    private final RedisServer redisServer;
+    private final LettuceConnectionFactory connectionFactory;
+    private final RedissonClient redissonClient;
+    private final ThreadPoolTaskExecutor cacheLoadExecutor;
+    private final ThreadPoolTaskScheduler invalidationScheduler;
+
+    final MultiLevelCacheProperties properties = new MultiLevelCacheProperties();
+    final RedisTemplate<String, Object> redisTemplate;
+    final EventCacheManager cacheManager;
+    /**
+     * 各线程的查库次数：同步 get 在调用线程上回源，基准线程读取自己的计数器即可
+     */
+    final ThreadLocal<AtomicLong> dbQueries = ThreadLocal.withInitial(AtomicLong::new);
+
+    /**
+     * @param localCacheEnabled false 时一级缓存容量为 0 (写入即淘汰)，用于测量二级缓存命中路径
+     * @param dbLatencyMicros   模拟的单次查库耗时
+     */
+    CacheBenchFixture(boolean localCacheEnabled, long dbLatencyMicros) throws IOException {
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        Config redissonConfig = new Config();
+        redissonConfig.useSingleServer()
+                .setAddress("redis://" + redisServer.getHost() + ":" + redisServer.getBindPort());
+        redissonClient = Redisson.create(redissonConfig);
+
+        // 按全部节点升级后的线上配置测：二进制编码
+        properties.getCodec().setBinaryEnabled(true);
+        RedisConfig redisConfig = new RedisConfig();
+        RedisSerializer<Object> valueSerializer = redisConfig.redisValueSerializer(properties);
+        redisTemplate = redisConfig.redisTemplate(connectionFactory, valueSerializer);
+        ReactiveRedisTemplate<String, Object> reactiveRedisTemplate =
+                redisConfig.reactiveRedisTemplate(connectionFactory, valueSerializer);
+
+        AsyncConfig asyncConfig = new AsyncConfig();
+        cacheLoadExecutor = (ThreadPoolTaskExecutor) asyncConfig.cacheLoadExecutor(properties);
+        invalidationScheduler = (ThreadPoolTaskScheduler) asyncConfig.cacheInvalidationScheduler();
+
+        LocalCacheFactory localCacheFactory = localCacheEnabled
+                ? new LocalCacheFactory(properties.getLocal())
+                : new DisabledLocalCacheFactory(properties.getLocal());
+        cacheManager = new EventCacheManager(localCacheFactory, redisTemplate, reactiveRedisTemplate, redissonClient,
+                properties, cacheLoadExecutor, new SimpleMeterRegistry(), invalidationScheduler,
+                StubEventMapper.create(dbLatencyMicros, () -> dbQueries.get().incrementAndGet()), new EventTtlPolicy(properties));
+        // 容器外没有 @PostConstruct，手动注册指标和失效订阅
+        cacheManager.init();
+    }
+
+    @Override
+    public void close() throws IOException {
+        invalidationScheduler.shutdown();
+        cacheLoadExecutor.shutdown();
+        redissonClient.shutdown();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    /**
+     * 容量为 0 的一级缓存：写入在调用线程同步淘汰，每次读取都会落到 Redis
+     */
+    private static final class DisabledLocalCacheFactory extends LocalCacheFactory {
+
+        DisabledLocalCacheFactory(MultiLevelCacheProperties.Local config) {
+            super(config);
+        }
+
+        @Override
+        public synchronized <T> Cache<String, Object> create(String name, Class<T> type, ToIntFunction<T> sizeEstimator) {
+            return Caffeine.newBuilder()
+                    .maximumSize(0)
+                    .executor(Runnable::run)
+                    .recordStats()
+                    .build();
+        }
+    }
+}
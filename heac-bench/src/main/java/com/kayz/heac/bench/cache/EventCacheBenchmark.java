@@ -0,0 +1,97 @@
+package com.kayz.heac.bench.cache;
+
+import com.kayz.heac.event.entity.Event;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EventCacheManager.get 三条路径的吞吐：
+ * <ul>
+ *     <li>L1_HIT: 1024 个 Key 全部在一级缓存</li>
+ *     <li>L2_HIT: 一级缓存容量为 0，每次都读 Redis (含反序列化和回填一级的开销)</li>
+ *     <li>MISS_WITH_LOCK: 每次都是新 Key，完整走 Single-Flight + Redisson 加锁 + 双重检查 + 查库 + 版本保护写入</li>
+ * </ul>
+ * 线程数通过 -t 指定；{@link com.kayz.heac.bench.BenchmarkMain} 依次跑 1 / 4 / 16 / 64 线程并输出 JSON
+ * <p>
+ * Redis 是进程内的 jedis-mock，没有真实网络往返，L2 / MISS 的绝对值偏乐观，用于前后对比而不是容量评估
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventCacheBenchmark {
+
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"L1_HIT", "L2_HIT", "MISS_WITH_LOCK"})
+    public String path;
+
+    /**
+     * 模拟的单次查库耗时，只影响 MISS_WITH_LOCK
+     */
+    @Param({"200"})
+    public long dbLatencyMicros;
+
+    private CacheBenchFixture fixture;
+    private List<String> ids;
+    private final AtomicLong missSeq = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    /**
+     * 每个基准线程在测量期间触发的查库次数，JMH 汇总后作为 get:dbQueries 辅助结果写入 JSON
+     * (MISS_WITH_LOCK 下应与操作数接近，说明 Single-Flight + 分布式锁没有重复回源；命中路径应为 0)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DbQueries {
+        private AtomicLong counter;
+        private long base;
+
+        @Setup(Level.Iteration)
+        public void bind(EventCacheBenchmark benchmark) {
+            // Thread 级 State 的 Setup 在所属的基准线程上执行，取到的就是本线程的计数器
+            counter = benchmark.fixture.dbQueries.get();
+            base = counter.get();
+        }
+
+        public long dbQueries() {
+            return counter.get() - base;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        fixture = new CacheBenchFixture(!"L2_HIT".equals(path), dbLatencyMicros);
+        ids = StubEventMapper.ids("bench-", KEY_COUNT);
+        if (!"MISS_WITH_LOCK".equals(path)) {
+            // 一次批量回源填充两级缓存 (L2_HIT 的一级缓存写入即淘汰)
+            fixture.cacheManager.getAll(ids);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    /**
+     * @param dbQueries 只需声明，计数由 StubEventMapper 在本线程回源时累加
+     */
+    @Benchmark
+    public Event get(Cursor cursor, DbQueries dbQueries) {
+        String id = "MISS_WITH_LOCK".equals(path)
+                ? "miss-" + missSeq.incrementAndGet()
+                : ids.get(cursor.next++ & (KEY_COUNT - 1));
+        return fixture.cacheManager.get(id);
+    }
+}
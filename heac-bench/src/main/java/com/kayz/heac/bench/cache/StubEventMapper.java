@@ -0,0 +1,77 @@
+package com.kayz.heac.bench.cache;
+
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import com.kayz.heac.event.mapper.EventMapper;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * 基准测试用的 EventMapper：任意ID都返回一条事件，并模拟一次主键查询的耗时
+ * <p>
+ * 只实现缓存回源会用到的 selectById / selectBatchIds，其余方法直接抛异常
+ */
+final class StubEventMapper {
+
+    private StubEventMapper() {
+    }
+
+    /**
+     * @param latencyMicros 每次查询的模拟耗时 (批量查询同样只算一次)
+     * @param onQuery       每次查询时回调 (统计回源次数)
+     */
+    static EventMapper create(long latencyMicros, Runnable onQuery) {
+        long latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        return (EventMapper) Proxy.newProxyInstance(EventMapper.class.getClassLoader(), new Class<?>[]{EventMapper.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "selectById" -> {
+                        query(latencyNanos, onQuery);
+                        yield sampleEvent(String.valueOf(args[0]));
+                    }
+                    case "selectBatchIds", "selectByIds" -> {
+                        query(latencyNanos, onQuery);
+                        yield ((Collection<?>) args[0]).stream().map(id -> sampleEvent(String.valueOf(id))).toList();
+                    }
+                    case "toString" -> "StubEventMapper";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException("StubEventMapper." + method.getName());
+                });
+    }
+
+    private static void query(long latencyNanos, Runnable onQuery) {
+        onQuery.run();
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+
+    static Event sampleEvent(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        return Event.builder()
+                .id(id)
+                .title("热点事件标题示例 " + id)
+                .summary("某地发生重大突发事件，现场情况持续更新中。")
+                .coverImg("https://cdn.example.com/cover/" + id + ".jpg")
+                .status(EventStatus.PUBLISHED)
+                .heatScore(123_456L)
+                .startTime(now.minusHours(2))
+                .endTime(now.plusDays(1))
+                .createdBy("bench")
+                .createTime(now.minusDays(1))
+                .updateTime(now)
+                .version(1)
+                .deleted(0)
+                .build();
+    }
+
+    static List<String> ids(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).toList();
+    }
+}
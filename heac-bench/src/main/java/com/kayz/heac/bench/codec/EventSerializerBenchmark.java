@@ -0,0 +1,107 @@
+package com.kayz.heac.bench.codec;
+
+import com.kayz.heac.event.cache.CacheEnvelope;
+import com.kayz.heac.event.cache.codec.CompactRedisSerializer;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.config.RedisConfig;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis Value 序列化对比：Jackson (带类型信息) vs 紧凑二进制 (+LZ4)
+ * <p>
+ * 运行：java -jar heac-bench/target/benchmarks.jar EventSerializerBenchmark -rf json
+ * <br>
+ * 每条缓存占用的字节数在 Setup 阶段记一条日志 (与耗时无关，只需看一次)
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSerializerBenchmark {
+
+    /**
+     * SMALL: 摘要几十字，未达到压缩阈值；LARGE: 长摘要，触发 LZ4；ENVELOPE: 逻辑过期模式下的包装对象
+     */
+    @Param({"SMALL", "LARGE", "ENVELOPE"})
+    public String shape;
+
+    private RedisSerializer<Object> jackson;
+    private RedisSerializer<Object> compact;
+
+    private Object value;
+    private byte[] jacksonBytes;
+    private byte[] compactBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jackson = RedisConfig.jacksonValueSerializer();
+        MultiLevelCacheProperties.Codec codec = new MultiLevelCacheProperties.Codec();
+        codec.setBinaryEnabled(true);
+        compact = new CompactRedisSerializer(jackson, codec);
+
+        Event event = sampleEvent("LARGE".equals(shape) ? 2000 : 40);
+        value = "ENVELOPE".equals(shape)
+                ? CacheEnvelope.of(event, System.currentTimeMillis() + 300_000)
+                : event;
+
+        jacksonBytes = jackson.serialize(value);
+        compactBytes = compact.serialize(value);
+        log.info("[{}] bytes/entry: jackson={}, compact={} ({}%)", shape, jacksonBytes.length, compactBytes.length,
+                String.format("%.1f", 100.0 * compactBytes.length / jacksonBytes.length));
+    }
+
+    @Benchmark
+    public byte[] jacksonEncode() {
+        return jackson.serialize(value);
+    }
+
+    @Benchmark
+    public Object jacksonDecode() {
+        return jackson.deserialize(jacksonBytes);
+    }
+
+    @Benchmark
+    public byte[] compactEncode() {
+        return compact.serialize(value);
+    }
+
+    @Benchmark
+    public Object compactDecode() {
+        return compact.deserialize(compactBytes);
+    }
+
+    private static Event sampleEvent(int summaryChars) {
+        StringBuilder summary = new StringBuilder(summaryChars);
+        String sentence = "某地发生重大突发事件，现场情况持续更新中。";
+        while (summary.length() < summaryChars) {
+            summary.append(sentence);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return Event.builder()
+                .id(UUID.randomUUID().toString().replace("-", ""))
+                .title("热点事件标题示例")
+                .summary(summary.substring(0, summaryChars))
+                .coverImg("https://cdn.example.com/cover/" + UUID.randomUUID() + ".jpg")
+                .status(EventStatus.PUBLISHED)
+                .heatScore(123_456L)
+                .startTime(now.minusHours(2))
+                .endTime(now.plusDays(1))
+                .createdBy(UUID.randomUUID().toString().replace("-", ""))
+                .createTime(now.minusDays(1))
+                .updateTime(now)
+                .version(3)
+                .deleted(0)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.kayz.heac.bench.heat;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.kayz.heac.event.config.HeatProperties;
+import com.kayz.heac.event.heat.HeatDecay;
+import com.kayz.heac.event.heat.HeatDelta;
+import com.kayz.heac.event.rank.EventHotRank;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.kayz.heac.common.consts.RedisPrefix.EVENT_HOT_RANK_KEY;
+
+/**
+ * 对数衰减热度的单次更新代价随事件总数的变化
+ * <ul>
+ *     <li>incrementalUpdate：内存中一次 logAddExp，与事件总数无关</li>
+ *     <li>redisIncrement：通过 EventHotRank 的脚本更新一个事件 (ZSCORE + ZADD XX，O(log n))</li>
+ *     <li>fullRescan：对照组，按固定周期把全部分数乘以衰减系数 (定时全表重算的做法)，随事件总数线性增长</li>
+ * </ul>
+ * 运行：java -jar heac-bench/target/benchmarks.jar HeatDecayBenchmark -rf json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeatDecayBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int eventCount;
+
+    private HeatDecay heatDecay;
+    private double[] scores;
+    // 对照组直接存线性热度
+    private double[] linearHeat;
+    private double decayFactor;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private EventHotRank eventHotRank;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        HeatProperties properties = new HeatProperties();
+        heatDecay = new HeatDecay(properties);
+        // 全量重算每分钟一次时的衰减系数
+        decayFactor = Math.pow(0.5, 60_000.0 / properties.getDecay().getHalfLife().toMillis());
+
+        long now = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(42);
+        scores = new double[eventCount];
+        linearHeat = new double[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            // 过去一周内发布、热度 1 ~ 100 万的事件
+            long heat = random.nextLong(1, 1_000_000);
+            scores[i] = heatDecay.seed(heat, now - random.nextLong(TimeUnit.DAYS.toMillis(7)));
+            linearHeat[i] = heat;
+        }
+
+        redisServer = RedisServer.newRedisServer();
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        for (int from = 0; from < eventCount; from += SEED_BATCH_SIZE) {
+            Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+            for (int i = from; i < Math.min(from + SEED_BATCH_SIZE, eventCount); i++) {
+                tuples.add(new DefaultTypedTuple<>(String.valueOf(i), scores[i]));
+            }
+            stringRedisTemplate.opsForZSet().add(EVENT_HOT_RANK_KEY, tuples);
+        }
+        // 只用到 incrementHeat，不需要 Redisson 和数据库
+        eventHotRank = new EventHotRank(stringRedisTemplate, null, null, heatDecay);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public double incrementalUpdate() {
+        int i = ThreadLocalRandom.current().nextInt(eventCount);
+        double score = HeatDecay.logAddExp(scores[i], heatDecay.logIncrement(5, System.currentTimeMillis()));
+        scores[i] = score;
+        return score;
+    }
+
+    @Benchmark
+    public long redisIncrement() {
+        String id = String.valueOf(ThreadLocalRandom.current().nextInt(eventCount));
+        return eventHotRank.incrementHeat(List.of(new HeatDelta(id, 5)), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public double fullRescan() {
+        double[] values = linearHeat;
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= decayFactor;
+            sum += values[i];
+        }
+        return sum;
+    }
+}
@@ -8,6 +8,15 @@ public class RedisPrefix {
     public static final String TOKEN_CACHE_PREFIX = "auth:token:";
     public static final String IP_BLACKLIST_KEY = "risk:blacklist:ip:";
     public static final String EVENT_KEY_PREFIX = "event:detail:";
+    // 热榜 score 为对数热度；格式变化时提升版本后缀，新 Key 从数据库重建，不与旧格式的分数混用
+    public static final String EVENT_HOT_RANK_KEY = "event:rank:hot:v2";
+    // 热榜重建完成标记：最后一批写入后才设置，未设置时启动会 (再次) 重建
+    public static final String EVENT_HOT_RANK_READY_KEY = "event:rank:hot:v2:ready";
+    // 原始累计热度格式的旧榜单，只用于上线后清理
+    public static final String LEGACY_EVENT_HOT_RANK_KEY = "event:rank:hot";
+    // 首次上线补发延迟消息的标记，永久有效，需要重新补发时通过 heactransition 端点清除
+    public static final String EVENT_TRANSITION_BOOTSTRAP_KEY = "event:transition:bootstrapped";
+    public static final String EVENT_TRANSITION_SWEEP_LOCK = "event:transition:sweep";
 
 
 
@@ -0,0 +1,11 @@
+package com.kayz.heac.common.exception;
+
+/**
+ * 缓存与数据库均暂时无法提供数据 (例如 Redis 故障期间回源请求超过数据库隔离舱上限)
+ * 调用方应返回"服务繁忙，请稍后重试"，而不是"数据不存在"
+ */
+public class CacheUnavailableException extends RuntimeException {
+    public CacheUnavailableException(String message) {
+        super(message);
+    }
+}
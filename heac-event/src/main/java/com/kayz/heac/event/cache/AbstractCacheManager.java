@@ -1,23 +1,197 @@
 package com.kayz.heac.event.cache;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.kayz.heac.common.exception.CacheUnavailableException;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.support.TransactionHooks;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
 import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 @Slf4j
 public abstract class AbstractCacheManager<T> implements EntityCacheManager<T> {
+    private static final long LOCK_WAIT_MS = 500;
+    private static final long LOCK_LEASE_MS = 5000;
+    private static final int LOCK_MAX_ATTEMPTS = 3;
+    /**
+     * 跟随者最多等待领头线程的时间，略大于领头线程最坏情况 (多次等锁 + 一次回源)
+     */
+    private static final long IN_FLIGHT_WAIT_MS = LOCK_WAIT_MS * LOCK_MAX_ATTEMPTS + LOCK_LEASE_MS;
+
+    /**
+     * 空值占位符 (Redis 中以普通字符串存储)
+     */
+    private static final String NULL_VALUE = "__HEAC_NULL__";
+
+    /**
+     * 异步加锁的持有者ID：Redisson 锁按 "客户端ID:线程ID" 识别持有者，
+     * 异步回调可能在任意线程执行，所以每次异步加锁分配一个独立ID。
+     * 取负数，避免与真实线程ID (正数) 冲突而被误判为重入
+     */
+    private static final AtomicLong ASYNC_LOCK_OWNER_SEQ = new AtomicLong();
+
+    /**
+     * 当前节点标识，用于在失效广播中忽略自己发出的消息
+     */
+    private static final String NODE_ID = UUID.randomUUID().toString();
+    private static final String INVALIDATION_SEPARATOR = "|";
+
+    /**
+     * 版本保护写入：版本号 Key 中记录的版本更高时放弃写入，否则同时写入数据和版本号
+     * KEYS[1] 数据 Key, KEYS[2] 版本号 Key; ARGV[1] 版本号, ARGV[2] 值, ARGV[3] TTL (毫秒)
+     * <p>
+     * 删除数据 Key 时保留版本号 Key (随 TTL 过期)，删除之后拿着旧版本回填的读者同样会被拒绝
+     */
+    private static final byte[] SET_IF_NEWER_SCRIPT = ("""
+            local current = redis.call('GET', KEYS[2])
+            if current and tonumber(current) > tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[3])
+            return 1
+            """).getBytes(StandardCharsets.UTF_8);
+    private static final String VERSION_KEY_SUFFIX = ":v";
+
+    /**
+     * 进程内正在回源的 Key -> 结果 Future (Single-Flight)
+     */
+    private final ConcurrentMap<String, CompletableFuture<T>> inFlightLoads = new ConcurrentHashMap<>();
+    /**
+     * 进程内正在后台刷新的 Key (Refresh-Ahead)
+     */
+    private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+    /**
+     * 本缓存独占的一级缓存 (由 {@link LocalCacheFactory} 按名称创建，按字节预算淘汰)
+     */
     private final Cache<String, Object> caffeineCache;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
     private final RedissonClient redissonClient; // 注入 Redisson 客户端
+    private final MultiLevelCacheProperties properties;
+    /**
+     * 异步回源专用的有界线程池
+     */
+    private final Executor cacheLoadExecutor;
+    private final MeterRegistry meterRegistry;
+    /**
+     * 延迟双删的调度器
+     */
+    private final TaskScheduler invalidationScheduler;
+
+    /**
+     * 本地空值缓存：单独一个小 Caffeine，TTL 与 Redis 空值一致，按字节计入一级缓存总预算
+     */
+    private final Cache<String, Boolean> nullValueCache;
+
+    /**
+     * 热点 Key 驻留缓存：独立于共享一级缓存，不会被大量冷数据挤出，TTL 更长，由定时任务主动刷新 (同样计入总预算)
+     */
+    private final Cache<String, Object> hotCache;
+
+    /**
+     * 热点 Key 探测器，未开启时为 null
+     */
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 默认过期策略 (固定 TTL + 抖动)，子类可通过 {@link #getTtlPolicy()} 替换
+     */
+    private final CacheTtlPolicy<T> defaultTtlPolicy;
+
+    // 防穿透统计：空值命中次数 / 布隆过滤器拦截次数
+    private final LongAdder nullValueHits = new LongAdder();
+    private final LongAdder bloomFilterRejects = new LongAdder();
+
+    private volatile boolean bloomFilterReady = false;
+
+    private final WarmupProgress warmupProgress = new WarmupProgress();
+
+    /**
+     * 分级命中、等锁、回源耗时等指标，初始化时按缓存前缀注册
+     */
+    private CacheMetrics metrics;
+
+    /**
+     * Redis 熔断器：打开时读路径只用一级缓存，未命中直接回源 (不加分布式锁)
+     */
+    private RedisCircuitBreaker redisBreaker;
+
+    /**
+     * 回源舱壁：限制本缓存同时查库的请求数
+     */
+    private DbBulkhead dbBulkhead;
 
-    protected AbstractCacheManager(Cache<String, Object> caffeineCache, RedisTemplate<String, Object> redisTemplate, RedissonClient redissonClient) {
-        this.caffeineCache = caffeineCache;
+    /**
+     * @param localCacheFactory 一级缓存工厂，本缓存的共享一级缓存、空值缓存、热点缓存都从这里创建并计入同一份字节预算
+     * @param localCacheName    一级缓存名 (heac.cache.local.caches 下的配置 Key)
+     * @param entityType        实体类型
+     * @param sizeEstimator     单个实体的堆内存估算 (字节)
+     */
+    protected AbstractCacheManager(LocalCacheFactory localCacheFactory,
+                                   String localCacheName,
+                                   Class<T> entityType,
+                                   ToIntFunction<T> sizeEstimator,
+                                   RedisTemplate<String, Object> redisTemplate,
+                                   ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                   RedissonClient redissonClient,
+                                   MultiLevelCacheProperties properties,
+                                   Executor cacheLoadExecutor,
+                                   MeterRegistry meterRegistry,
+                                   TaskScheduler invalidationScheduler) {
+        this.caffeineCache = localCacheFactory.create(localCacheName, entityType, sizeEstimator);
         this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
         this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.cacheLoadExecutor = cacheLoadExecutor;
+        this.meterRegistry = meterRegistry;
+        this.invalidationScheduler = invalidationScheduler;
+        this.defaultTtlPolicy = new DefaultTtlPolicy<>(properties);
+        MultiLevelCacheProperties.NullValue nullValueConfig = properties.getNullValue();
+        this.nullValueCache = localCacheFactory.createNullValueCache(localCacheName,
+                nullValueConfig.getTtl(), nullValueConfig.getLocalMaxBytes());
+        MultiLevelCacheProperties.HotKey hotKeyConfig = properties.getHotKey();
+        this.hotCache = localCacheFactory.createHotCache(localCacheName, entityType, sizeEstimator,
+                hotKeyConfig.getTtl(), hotKeyConfig.getMaxBytes());
+        this.hotKeyDetector = hotKeyConfig.isEnabled()
+                ? new HotKeyDetector(hotKeyConfig.getSketchWidth(), hotKeyConfig.getSketchDepth(),
+                hotKeyConfig.getWindow(), hotKeyConfig.getThreshold(), hotKeyConfig.getMaxHotKeys())
+                : null;
     }
 
 
@@ -26,109 +200,1435 @@ public abstract class AbstractCacheManager<T> implements EntityCacheManager<T> {
 
     protected abstract T fetchFromDb(String id);
 
-    protected long getRedisTtl() {
-        return 10;
+    /**
+     * 批量回源数据库，默认逐个调用 {@link #fetchFromDb(String)}
+     * 子类应重写为一次批量查询 (例如 selectBatchIds)
+     *
+     * @param ids 缓存均未命中的ID
+     * @return ID -> 实体对象 (不存在的ID不放入)
+     */
+    protected Map<String, T> fetchBatchFromDb(Collection<String> ids) {
+        Map<String, T> result = new HashMap<>();
+        for (String id : ids) {
+            T obj = fetchFromDb(id);
+            if (obj != null) {
+                result.put(id, obj);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分批扫描数据库中全部有效ID，用于构建布隆过滤器
+     *
+     * @param batchConsumer 每批ID的消费者
+     */
+    protected abstract void scanAllIds(Consumer<List<String>> batchConsumer);
+
+    /**
+     * 按优先级分批扫描需要启动预热的ID，默认不预热
+     *
+     * @param batchSize     每批条数
+     * @param batchConsumer 每批ID的消费者，返回 false 时停止扫描 (预算耗尽)
+     */
+    protected void scanWarmupIds(int batchSize, Predicate<List<String>> batchConsumer) {
     }
 
-    protected TimeUnit getRedisTtlUnit() {
-        return TimeUnit.MINUTES;
+    /**
+     * 过期策略，子类可按实体内容返回不同的 TTL
+     */
+    protected CacheTtlPolicy<T> getTtlPolicy() {
+        return defaultTtlPolicy;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public T get(String id) {
-        String cacheKey = getCachePrefix() + id;
+        String cacheKey = buildKey(id);
+        recordAccess(id);
 
-        // 1. 第一次查缓存 (Caffeine + Redis)
-        T cacheResult = getFromCache(cacheKey);
+        // 1. 第一次查缓存 (Caffeine + Redis)，空值占位也算命中
+        Object cacheResult = lookup(cacheKey);
         if (cacheResult != null) {
-            return cacheResult;
+            return resolve(cacheKey, cacheResult);
+        }
+
+        // 2. 布隆过滤器：一定不存在的ID直接拦截，不抢锁也不查库
+        if (!mightExist(id)) {
+            bloomFilterRejects.increment();
+            nullValueCache.put(cacheKey, Boolean.TRUE);
+            return null;
+        }
+
+        // 3. 进程内 Single-Flight：同一个 JVM 内同一个 Key 只有一个线程去抢分布式锁回源
+        // 其余线程直接等待这个 Future，不再各自打 Redis 锁请求
+        CompletableFuture<T> myLoad = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = inFlightLoads.putIfAbsent(cacheKey, myLoad);
+        if (inFlight != null) {
+            return awaitInFlight(cacheKey, inFlight);
+        }
+
+        try {
+            T result = loadWithLock(id, cacheKey);
+            myLoad.complete(result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            myLoad.completeExceptionally(e);
+            log.error("Lock interrupted", e);
+            return null;
+        } catch (CacheUnavailableException e) {
+            // 回源舱壁已满：快速失败交给调用方，不当作"数据不存在"
+            myLoad.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            myLoad.completeExceptionally(e);
+            log.error("Cache Get Error", e);
+            return null;
+        } finally {
+            inFlightLoads.remove(cacheKey, myLoad);
+        }
+    }
+
+    /**
+     * 跟随者：等待同 JVM 内正在进行的回源结果
+     */
+    private T awaitInFlight(String cacheKey, CompletableFuture<T> inFlight) {
+        try {
+            return inFlight.get(IN_FLIGHT_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 领头线程异常缓慢，最后看一眼缓存，不再排队
+            log.warn("Single-Flight wait timeout: {}", cacheKey);
+            return resolve(cacheKey, getFromCache(cacheKey));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Single-Flight wait interrupted", e);
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CacheUnavailableException unavailable) {
+                throw unavailable;
+            }
+            log.error("Cache Get Error", e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * 领头线程：拿分布式锁回源 (每个 JVM 同一个 Key 同时只有一个线程会进入这里)
+     */
+    private T loadWithLock(String id, String cacheKey) throws InterruptedException {
+        // Redis 熔断中：分布式锁也不可用，退化为进程内 Single-Flight (每个 JVM 每个 Key 一个线程查库)
+        if (redisBreaker.isOpen()) {
+            return loadFromDb(id, cacheKey);
         }
 
-        // 2. 缓存未命中，准备回源数据库
         // 定义锁的 Key (例如: lock:heac:event:detail:123)
         // 加上 "lock:" 前缀防止和真实数据 Key 冲突
-        String lockKey = "lock:" + cacheKey;
-        RLock lock = redissonClient.getLock(lockKey);
+        RLock lock = redissonClient.getLock("lock:" + cacheKey);
 
-        try {
-            // 3. 尝试获取锁
+        for (int attempt = 1; attempt <= LOCK_MAX_ATTEMPTS; attempt++) {
+            // 4. 尝试获取锁
             // tryLock(等待时间, 锁自动释放时间, 单位)
-            // 等待 500ms: 如果别人正在查库，我等一会
+            // 等待 500ms: 如果其他节点正在查库，我等一会 (Redisson 基于 pub/sub 等待解锁通知，不需要自己 sleep)
             // 自动释放 5s: 防止节点挂掉死锁，数据库查询一般不会超过 5s
-            boolean isLocked = lock.tryLock(500, 5000, TimeUnit.MILLISECONDS);
-
-            if (isLocked) {
+            long waitStart = System.nanoTime();
+            boolean locked;
+            try {
+                locked = lock.tryLock(LOCK_WAIT_MS, LOCK_LEASE_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                // Redis 不可用，放弃分布式锁直接回源
+                log.warn("Lock unavailable, Query DB without lock: {}", cacheKey, e);
+                return loadFromDb(id, cacheKey);
+            }
+            metrics.recordLockWait(System.nanoTime() - waitStart, locked);
+            if (locked) {
                 try {
-                    // 4. 【关键】双重检查 (Double Check)
-                    // 在我等待锁的时候，可能前一个线程已经把数据查回来放缓存了
+                    // 5. 【关键】双重检查 (Double Check)
+                    // 在我等待锁的时候，可能其他节点已经把数据查回来放缓存了
                     // 所以拿到锁之后，必须再查一次缓存
-                    T doubleCheck = getFromCache(cacheKey);
+                    Object doubleCheck = getFromCache(cacheKey);
                     if (doubleCheck != null) {
                         log.debug("Double Check Hit: {}", cacheKey);
-                        return doubleCheck;
+                        metrics.recordDoubleCheckHit();
+                        return resolve(cacheKey, doubleCheck);
+                    }
+                    return loadFromDb(id, cacheKey);
+                } finally {
+                    // 锁可能因回源超过租期而自动释放，只释放自己持有的锁
+                    try {
+                        if (lock.isHeldByCurrentThread()) {
+                            lock.unlock();
+                        }
+                    } catch (Exception e) {
+                        // Redis 已不可用，锁会随租期自动释放
+                        log.warn("Unlock failed: {}", cacheKey, e);
+                    }
+                }
+            }
+
+            // 6. 没拿到锁：其他节点正在回源，看看它是否已经写回缓存
+            Object otherLoaded = getFromCache(cacheKey);
+            if (otherLoaded != null) {
+                return resolve(cacheKey, otherLoaded);
+            }
+        }
+
+        // 7. 多次都没拿到锁 (持锁节点异常缓慢)，本节点直接回源
+        // 有 Single-Flight 兜底，每个 JVM 同一个 Key 至多一个线程走到这里
+        log.warn("Lock wait exhausted, Query DB without lock: {}", cacheKey);
+        metrics.recordLockExhausted();
+        return loadFromDb(id, cacheKey);
+    }
+
+    /**
+     * 非阻塞获取详情
+     * <p>
+     * Redis 读取走响应式命令，分布式锁走 Redisson 异步 API，DB 查询在 cacheLoadExecutor 中执行，
+     * 等锁、等回源都不会占用调用方线程。与 {@link #get(String)} 共享同一个 Single-Flight
+     */
+    @Override
+    public CompletableFuture<T> getAsync(String id) {
+        String cacheKey = buildKey(id);
+        recordAccess(id);
+
+        // 1. 查一级缓存 (纯内存，直接在调用线程完成)
+        Object localObj = getFromLocal(cacheKey);
+        metrics.recordL1(localObj != null);
+        if (localObj != null) {
+            return CompletableFuture.completedFuture(resolve(cacheKey, localObj));
+        }
+
+        // 2. 异步查二级缓存，未命中再异步回源
+        return getFromRedisAsync(cacheKey)
+                .whenComplete((cached, e) -> {
+                    if (e == null) {
+                        metrics.recordL2(cached != null);
                     }
+                })
+                .thenCompose(cached -> cached != null
+                        ? CompletableFuture.completedFuture(resolve(cacheKey, cached))
+                        : loadAsyncOnce(id, cacheKey))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof CacheUnavailableException unavailable) {
+                        throw unavailable;
+                    }
+                    log.error("Cache GetAsync Error", e);
+                    return null;
+                });
+    }
 
-                    // 5. 确实没有，查询数据库
-                    log.info("Cache MISS, Query DB: {}", cacheKey);
-                    T dbObj = fetchFromDb(id);
+    /**
+     * 异步版 Single-Flight：已有回源在进行时直接复用它的 Future，不阻塞
+     */
+    private CompletableFuture<T> loadAsyncOnce(String id, String cacheKey) {
+        CompletableFuture<T> myLoad = new CompletableFuture<>();
+        CompletableFuture<T> inFlight = inFlightLoads.putIfAbsent(cacheKey, myLoad);
+        if (inFlight != null) {
+            return inFlight;
+        }
 
-                    if (dbObj != null) {
-                        // 6. 写入缓存
-                        redisTemplate.opsForValue().set(cacheKey, dbObj, getRedisTtl(), getRedisTtlUnit());
-                        caffeineCache.put(cacheKey, dbObj);
+        CompletableFuture<Boolean> exists;
+        try {
+            exists = properties.getBloomFilter().isEnabled()
+                    // 布隆过滤器是同步 API，放到回源线程池里判断
+                    ? CompletableFuture.supplyAsync(() -> mightExist(id), cacheLoadExecutor)
+                    : CompletableFuture.completedFuture(Boolean.TRUE);
+        } catch (RejectedExecutionException e) {
+            // 回源线程池已满：必须结束并移除占位的 Future，否则该 Key 后续的读取会一直等待
+            inFlightLoads.remove(cacheKey, myLoad);
+            myLoad.completeExceptionally(e);
+            return myLoad;
+        }
+        exists.thenCompose(mightExist -> {
+                    if (!mightExist) {
+                        bloomFilterRejects.increment();
+                        nullValueCache.put(cacheKey, Boolean.TRUE);
+                        return CompletableFuture.<T>completedFuture(null);
+                    }
+                    return loadWithLockAsync(id, cacheKey, -ASYNC_LOCK_OWNER_SEQ.incrementAndGet(), 1);
+                })
+                .whenComplete((result, e) -> {
+                    inFlightLoads.remove(cacheKey, myLoad);
+                    if (e != null) {
+                        myLoad.completeExceptionally(e);
                     } else {
-                        // 7. (可选) 缓存空值，防止缓存穿透
-                        //redisTemplate.opsForValue().set(cacheKey, NullObject, 1, TimeUnit.MINUTES);
+                        myLoad.complete(result);
                     }
-                    return dbObj;
-                } finally {
-                    lock.unlock(); // 释放锁
-                }
+                });
+        return myLoad;
+    }
+
+    /**
+     * 异步加锁回源，逻辑与 {@link #loadWithLock(String, String)} 一致
+     */
+    private CompletableFuture<T> loadWithLockAsync(String id, String cacheKey, long lockOwner, int attempt) {
+        if (redisBreaker.isOpen()) {
+            return CompletableFuture.supplyAsync(() -> loadFromDb(id, cacheKey), cacheLoadExecutor);
+        }
+        RLock lock = redissonClient.getLock("lock:" + cacheKey);
+        long waitStart = System.nanoTime();
+        return lock.tryLockAsync(LOCK_WAIT_MS, LOCK_LEASE_MS, TimeUnit.MILLISECONDS, lockOwner)
+                .toCompletableFuture()
+                // 加锁命令失败 (Redis 不可用) 记为 null，下面直接回源
+                .exceptionally(e -> {
+                    log.warn("Async lock unavailable, Query DB without lock: {}", cacheKey, e);
+                    return null;
+                })
+                .thenCompose(locked -> {
+                    if (locked == null) {
+                        return CompletableFuture.supplyAsync(() -> loadFromDb(id, cacheKey), cacheLoadExecutor);
+                    }
+                    metrics.recordLockWait(System.nanoTime() - waitStart, Boolean.TRUE.equals(locked));
+                    if (Boolean.TRUE.equals(locked)) {
+                        // 双重检查，仍未命中才在回源线程池查库
+                        return getFromRedisAsync(cacheKey)
+                                .thenCompose(doubleCheck -> {
+                                    if (doubleCheck != null) {
+                                        metrics.recordDoubleCheckHit();
+                                        return CompletableFuture.completedFuture(resolve(cacheKey, doubleCheck));
+                                    }
+                                    return CompletableFuture.supplyAsync(() -> loadFromDb(id, cacheKey), cacheLoadExecutor);
+                                })
+                                .whenComplete((result, e) -> lock.unlockAsync(lockOwner)
+                                        .whenComplete((v, unlockError) -> {
+                                            if (unlockError != null) {
+                                                // 回源超过租期锁已自动释放，忽略即可
+                                                log.debug("Async unlock failed: {}", cacheKey, unlockError);
+                                            }
+                                        }));
+                    }
+                    // 没拿到锁：看其他节点是否已写回缓存，否则继续等锁，多次失败后直接回源
+                    return getFromRedisAsync(cacheKey).thenCompose(otherLoaded -> {
+                        if (otherLoaded != null) {
+                            return CompletableFuture.completedFuture(resolve(cacheKey, otherLoaded));
+                        }
+                        if (attempt < LOCK_MAX_ATTEMPTS) {
+                            return loadWithLockAsync(id, cacheKey, lockOwner, attempt + 1);
+                        }
+                        log.warn("Lock wait exhausted, Query DB without lock: {}", cacheKey);
+                        metrics.recordLockExhausted();
+                        return CompletableFuture.supplyAsync(() -> loadFromDb(id, cacheKey), cacheLoadExecutor);
+                    });
+                });
+    }
+
+    private T loadFromDb(String id, String cacheKey) {
+        // 确实没有，查询数据库
+        // 未命中次数和耗时见 heac.cache.gets / heac.cache.db.fetch 指标
+        log.debug("Cache MISS, Query DB: {}", cacheKey);
+        T dbObj = dbBulkhead.call(() -> metrics.timeDbFetch(() -> fetchFromDb(id)));
+
+        if (dbObj != null) {
+            // 写入缓存 (Refresh-Ahead 模式下带上逻辑过期时间)
+            Object cacheValue = wrapForCache(dbObj);
+            // Redis 不可用时仍写一级缓存，熔断期间靠它挡住重复回源
+            if (redisBreaker.call(() -> writeRedis(cacheKey, dbObj, cacheValue), Boolean.TRUE)) {
+                putLocal(cacheKey, cacheValue);
+            }
+            nullValueCache.invalidate(cacheKey);
+        } else {
+            // 缓存空值，防止缓存穿透
+            putNullValue(cacheKey);
+        }
+        return dbObj;
+    }
+
+    @Override
+    public Map<String, T> getAll(Collection<String> ids) {
+        Map<String, T> result = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+        // 去重，同时保持入参顺序
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        Map<String, T> found = new HashMap<>(distinctIds.size() * 2);
+
+        // 1. 一级缓存批量命中 (空值占位的ID直接跳过)，热点驻留缓存优先
+        distinctIds.forEach(this::recordAccess);
+        List<String> localKeys = distinctIds.stream().map(this::buildKey).toList();
+        Map<String, Object> localHits = new HashMap<>(caffeineCache.getAllPresent(localKeys));
+        localHits.putAll(hotCache.getAllPresent(localKeys));
+        Map<String, Boolean> localNulls = nullValueCache.getAllPresent(localKeys);
+        List<String> missIds = new ArrayList<>();
+        for (String id : distinctIds) {
+            String key = buildKey(id);
+            Object localObj = localHits.get(key);
+            if (localObj != null) {
+                found.put(id, resolve(key, localObj));
+            } else if (localNulls.containsKey(key)) {
+                nullValueHits.increment();
             } else {
-                // 8. 获取锁失败 (说明并发非常高，别人正在查库)
-                // 策略：等待一会儿再重试查询缓存，或者直接返回失败
-                // 这里简单处理：休息 200ms 后递归调用自己，或者直接返回 null 让前端重试
-                Thread.sleep(200);
-                return get(id); // 递归重试
+                missIds.add(id);
+            }
+        }
+        metrics.recordL1(distinctIds.size() - missIds.size(), missIds.size());
+
+        // 2. 二级缓存：一次 MGET 查出剩余的 Key
+        if (!missIds.isEmpty()) {
+            // Redis 熔断或异常时返回 null，剩余 ID 直接走 DB
+            List<String> missKeys = missIds.stream().map(this::buildKey).toList();
+            List<Object> redisValues = redisBreaker.call(() -> redisTemplate.opsForValue().multiGet(missKeys), null);
+            if (redisValues != null) {
+                List<String> stillMiss = new ArrayList<>();
+                for (int i = 0; i < missIds.size(); i++) {
+                    Object redisObj = redisValues.get(i);
+                    String id = missIds.get(i);
+                    if (redisObj == null) {
+                        stillMiss.add(id);
+                    } else if (NULL_VALUE.equals(redisObj)) {
+                        nullValueHits.increment();
+                        nullValueCache.put(buildKey(id), Boolean.TRUE);
+                    } else {
+                        String key = buildKey(id);
+                        putLocal(key, redisObj); // 回填一级
+                        found.put(id, resolve(key, redisObj));
+                    }
+                }
+                metrics.recordL2(missIds.size() - stillMiss.size(), stillMiss.size());
+                missIds = stillMiss;
             }
+        }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Lock interrupted", e);
+        // 3. 剩余的一次性批量回源数据库，并一次 Pipeline 回填两级缓存 (查不到的写空值)
+        // 注意：批量路径不加分布式锁，并发回源的代价由批量查询本身摊薄
+        if (!missIds.isEmpty()) {
+            log.debug("Cache MISS, Batch Query DB: {} x {}", getCachePrefix(), missIds.size());
+            List<String> batchIds = missIds;
+            Map<String, T> dbObjs = dbBulkhead.call(() -> metrics.timeDbBatchFetch(() -> fetchBatchFromDb(batchIds)));
+            List<String> absentIds = missIds.stream().filter(id -> !dbObjs.containsKey(id)).toList();
+            putAllToCache(dbObjs, absentIds);
+            found.putAll(dbObjs);
+        }
+
+        for (String id : distinctIds) {
+            T obj = found.get(id);
+            if (obj != null) {
+                result.put(id, obj);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量回填两级缓存 (Redis 使用 Pipeline，一次网络往返)
+     */
+    private void putAllToCache(Map<String, T> entities, List<String> absentIds) {
+        boolean writeNull = properties.getNullValue().isEnabled() && !absentIds.isEmpty();
+        if (entities.isEmpty() && !writeNull) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(entities.size());
+        List<Object> values = new ArrayList<>(entities.size());
+        entities.forEach((id, obj) -> {
+            keys.add(buildKey(id));
+            values.add(wrapForCache(obj));
+        });
+        List<String> absentKeys = writeNull ? absentIds.stream().map(this::buildKey).toList() : List.of();
+        byte[] rawNull = rawValue(NULL_VALUE);
+        Expiration nullTtl = Expiration.from(properties.getNullValue().getTtl());
+        // 熔断或异常时只回填一级缓存
+        List<Object> results = redisBreaker.call(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            // 每个 Key 单独计算 TTL (带抖动)，同一批写入不会在同一时刻过期；有版本号的走版本保护写入
+            for (int i = 0; i < keys.size(); i++) {
+                T entity = entityOf(values.get(i));
+                writeRedis(connection, keys.get(i), entity, values.get(i), getTtlPolicy().redisTtl(entity));
+            }
+            absentKeys.forEach(key -> connection.stringCommands().set(rawKey(key), rawNull, nullTtl, SetOption.upsert()));
             return null;
-        } catch (Exception e) {
-            log.error("Cache Get Error", e);
+        }), List.of());
+        for (int i = 0; i < keys.size(); i++) {
+            // Redis 中已有更高版本 (被并发的写穿抢先)，本地也不写入旧值
+            if (i < results.size() && Long.valueOf(0L).equals(results.get(i))) {
+                continue;
+            }
+            putLocal(keys.get(i), values.get(i));
+        }
+        nullValueCache.invalidateAll(keys);
+        absentKeys.forEach(key -> nullValueCache.put(key, Boolean.TRUE));
+    }
+
+    /**
+     * 只查一级缓存，不读 Redis、不回源，也不反序列化或复制实体 (条件请求的快速路径，调用方只读取版本号、状态等字段)
+     * <p>
+     * 与 {@link #get(String)} 命中一级缓存时看到的是同一份数据，一致性相同
+     *
+     * @param id 主键ID
+     * @return 一级缓存中的实体 (共享实例，不能修改)；未命中或缓存的是空值时返回 null
+     */
+    public T peekLocal(String id) {
+        String cacheKey = buildKey(id);
+        Object hotObj = hotCache.getIfPresent(cacheKey);
+        Object cacheValue = hotObj != null ? hotObj : caffeineCache.getIfPresent(cacheKey);
+        if (cacheValue == null) {
             return null;
         }
+        // 轮询也是访问，参与热点统计 (热点驻留后轮询始终命中一级缓存)
+        recordAccess(id);
+        return entityOf(cacheValue);
     }
 
+    /* ---------------- 版本保护写入 ---------------- */
+
     /**
-     * 提取公共的查缓存逻辑
+     * 实体版本号 (乐观锁字段)，返回 null 表示不做版本保护
+     * 有版本号的实体写入 Redis 时，不会覆盖已缓存的更高版本
+     */
+    protected Long versionOf(T entity) {
+        return null;
+    }
+
+    /**
+     * 回源后写入 Redis (版本保护)
+     *
+     * @return false 表示 Redis 中已有更高版本，调用方不应再回填一级缓存
+     */
+    private boolean writeRedis(String key, T entity, Object cacheValue) {
+        Long written = redisTemplate.execute((RedisCallback<Long>) connection ->
+                writeRedis(connection, key, entity, cacheValue, getTtlPolicy().redisTtl(entity)));
+        return !Long.valueOf(0L).equals(written);
+    }
+
+    /**
+     * 写穿：数据更新后直接把新值写入两级缓存 (代替删除，更新后的第一次读取也能命中)，
+     * Redis 中已有更高版本时放弃写入；未开启写穿时退化为删除
+     * <p>
+     * 事务中请使用 {@link #writeThroughAfterCommit(String, Object)}
+     *
+     * @param id     主键ID
+     * @param entity 已提交的最新数据
+     */
+    public void writeThrough(String id, T entity) {
+        if (entity == null) {
+            invalidate(id);
+            return;
+        }
+        writeThroughAll(Map.of(id, entity));
+    }
+
+    /**
+     * 批量写穿：一次 Pipeline 执行全部版本保护写入，一条广播通知其他节点
+     */
+    private void writeThroughAll(Map<String, T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        if (!properties.isWriteThrough()) {
+            invalidateAll(entities.keySet());
+            return;
+        }
+        List<String> ids = new ArrayList<>(entities.keySet());
+        List<String> keys = ids.stream().map(this::buildKey).toList();
+        List<Object> values = ids.stream().map(id -> wrapForCache(entities.get(id))).toList();
+        List<Object> results;
+        try {
+            results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < ids.size(); i++) {
+                    T entity = entities.get(ids.get(i));
+                    writeRedis(connection, keys.get(i), entity, values.get(i), getTtlPolicy().redisTtl(entity));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 写穿失败退化为删除，保证不会留下旧值
+            log.warn("Write-through failed, fallback to invalidate: {} {}", getCachePrefix(), ids, e);
+            invalidateAll(ids);
+            return;
+        }
+        nullValueCache.invalidateAll(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            if (Long.valueOf(0L).equals(results.get(i))) {
+                // 已有更高版本，本地旧值也不再可信
+                log.debug("Write-through skipped, newer version cached: {}", keys.get(i));
+                evictLocal(keys.get(i));
+            } else {
+                putLocal(keys.get(i), values.get(i));
+            }
+        }
+        // 其他节点的一级缓存还是旧值，清掉后从 Redis 读新值
+        broadcastInvalidation(ids);
+    }
+
+    /**
+     * 写入 Redis：有版本号时执行 {@link #SET_IF_NEWER_SCRIPT}，否则直接 SET
+     * (在 Pipeline 中调用时返回 null，结果从 Pipeline 结果列表中获取)
+     *
+     * @return 1 写入成功 / 0 已有更高版本
+     */
+    private Long writeRedis(RedisConnection connection, String key, T entity, Object cacheValue, Duration ttl) {
+        byte[] rawKey = rawKey(key);
+        byte[] rawValue = rawValue(cacheValue);
+        Long version = versionOf(entity);
+        if (version == null) {
+            connection.stringCommands().set(rawKey, rawValue, Expiration.from(ttl), SetOption.upsert());
+            return 1L;
+        }
+        return connection.scriptingCommands().eval(SET_IF_NEWER_SCRIPT, ReturnType.INTEGER, 2,
+                rawKey, rawKey(versionKey(key)),
+                String.valueOf(version).getBytes(StandardCharsets.UTF_8),
+                rawValue,
+                String.valueOf(ttl.toMillis()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 版本号 Key，用 Hash Tag 保证与数据 Key 落在同一个 Slot (Lua 脚本在集群模式下的要求)
+     */
+    private String versionKey(String key) {
+        return "{" + key + "}" + VERSION_KEY_SUFFIX;
+    }
+
+    private byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    /**
+     * 两个值中保留版本号更高的一个 (一级缓存写入时使用)
+     */
+    private Object newerOf(Object current, Object candidate) {
+        if (current == null) {
+            return candidate;
+        }
+        Long currentVersion = versionOf(entityOf(current));
+        Long candidateVersion = versionOf(entityOf(candidate));
+        return currentVersion != null && candidateVersion != null && currentVersion > candidateVersion ? current : candidate;
+    }
+
+    /**
+     * 写入一级缓存，按过期策略为每个条目单独设置 TTL
+     */
+    private void putLocal(String key, Object cacheValue) {
+        // 已驻留的热点 Key 只更新驻留缓存，不再占用共享一级缓存的空间
+        // 两种缓存都不会用低版本覆盖高版本 (并发读者可能拿着写穿之前的旧数据回填)
+        if (hotCache.asMap().computeIfPresent(key, (k, v) -> newerOf(v, cacheValue)) != null) {
+            return;
+        }
+        Optional<Policy.VarExpiration<String, Object>> varExpiration = caffeineCache.policy().expireVariably();
+        if (varExpiration.isPresent()) {
+            varExpiration.get().compute(key, (k, v) -> newerOf(v, cacheValue), getTtlPolicy().localTtl(entityOf(cacheValue)));
+        } else {
+            caffeineCache.asMap().compute(key, (k, v) -> newerOf(v, cacheValue));
+        }
+    }
+
+    /**
+     * 取出缓存值中的实体 (去掉逻辑过期包装)
      */
     @SuppressWarnings("unchecked")
-    private T getFromCache(String key) {
+    private T entityOf(Object cacheValue) {
+        return cacheValue instanceof CacheEnvelope envelope ? (T) envelope.getData() : (T) cacheValue;
+    }
+
+    private String buildKey(String id) {
+        return getCachePrefix() + id;
+    }
+
+    /**
+     * 请求的第一次查缓存，与 {@link #getFromCache(String)} 相同，但记录各级命中指标
+     * (双重检查等内部重查不计入，避免重复统计)
+     */
+    private Object lookup(String key) {
+        Object localObj = getFromLocal(key);
+        metrics.recordL1(localObj != null);
+        if (localObj != null) return localObj;
+
+        Object redisObj = acceptRedisValue(key, getFromRedis(key));
+        metrics.recordL2(redisObj != null);
+        return redisObj;
+    }
+
+    /**
+     * 提取公共的查缓存逻辑
+     *
+     * @return 实体对象 / {@link #NULL_VALUE} (确认不存在) / null (未命中)
+     */
+    private Object getFromCache(String key) {
         // 查一级
-        T localObj = (T) caffeineCache.getIfPresent(key);
+        Object localObj = getFromLocal(key);
         if (localObj != null) return localObj;
 
         // 查二级
-        Object redisObj = redisTemplate.opsForValue().get(key);
-        if (redisObj != null) {
-            T entity = (T) redisObj;
-            caffeineCache.put(key, entity); // 回填一级
-            return entity;
+        return acceptRedisValue(key, getFromRedis(key));
+    }
+
+    /**
+     * 读二级缓存，Redis 熔断或异常时当作未命中
+     */
+    private Object getFromRedis(String key) {
+        return redisBreaker.call(() -> redisTemplate.opsForValue().get(key), null);
+    }
+
+    private Object getFromLocal(String key) {
+        Object hotObj = hotCache.getIfPresent(key);
+        if (hotObj != null) return hotObj;
+        Object localObj = caffeineCache.getIfPresent(key);
+        if (localObj != null) return localObj;
+        if (nullValueCache.getIfPresent(key) != null) {
+            nullValueHits.increment();
+            return NULL_VALUE;
         }
         return null;
     }
 
-    @Override
-    public void invalidate(String id) {
-        String key = getCachePrefix() + id;
-        redisTemplate.delete(key);
-        caffeineCache.invalidate(key);
+    private CompletableFuture<Object> getFromRedisAsync(String key) {
+        // 空 Mono 转换为 Future 后结果为 null；Redis 熔断或异常时同样当作未命中
+        return redisBreaker.callAsync(() -> reactiveRedisTemplate.opsForValue().get(key).toFuture(), null)
+                .thenApply(redisObj -> acceptRedisValue(key, redisObj));
+    }
 
-        // 也可以顺便把锁删了(虽然不需要，因为锁是临时的)
-        // Redisson 的锁是独立的 Key，不影响业务 Key
+    /**
+     * 处理二级缓存读到的值：空值占位转为 NULL_VALUE，实体回填一级
+     */
+    private Object acceptRedisValue(String key, Object redisObj) {
+        if (redisObj == null) {
+            return null;
+        }
+        if (NULL_VALUE.equals(redisObj)) {
+            nullValueHits.increment();
+            nullValueCache.put(key, Boolean.TRUE);
+            return NULL_VALUE;
+        }
+        putLocal(key, redisObj); // 回填一级
+        return redisObj;
+    }
+
+    /**
+     * 把缓存中取出的值还原为实体：空值占位返回 null；
+     * 逻辑过期包装则直接返回旧值，过期了顺带触发后台刷新
+     */
+    @SuppressWarnings("unchecked")
+    private T resolve(String key, Object cached) {
+        if (cached == null || NULL_VALUE.equals(cached)) {
+            return null;
+        }
+        if (cached instanceof CacheEnvelope envelope) {
+            if (envelope.isStaleAt(System.currentTimeMillis())) {
+                scheduleRefresh(key);
+            }
+            return (T) envelope.getData();
+        }
+        return (T) cached;
+    }
+
+    private void putNullValue(String cacheKey) {
+        if (!properties.getNullValue().isEnabled()) {
+            return;
+        }
+        redisBreaker.call(() -> {
+            redisTemplate.opsForValue().set(cacheKey, NULL_VALUE, properties.getNullValue().getTtl());
+            return null;
+        }, null);
+        nullValueCache.put(cacheKey, Boolean.TRUE);
+    }
+
+    @Override
+    public void invalidate(String id) {
+        invalidateAll(List.of(id));
+    }
+
+    /**
+     * 批量删除缓存：多 Key DEL (按批 Pipeline) + 清理本地 + 一条广播，并在延迟后再删一次
+     * <p>
+     * 延迟双删：删除与提交之间 (或提交前已开始回源) 的读者可能把旧数据写回 Redis，
+     * 延迟一段时间后再删一次，把这个窗口内写回的旧值清掉
+     *
+     * @param ids 主键ID
+     */
+    public void invalidateAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> keys = ids.stream().map(this::buildKey).toList();
+        Runnable invalidatePass = () -> {
+            // DEL 走熔断器：Redis 异常或熔断时只跳过这一步 (延迟双删会再试一次，最终由 TTL 兜底)，
+            // 本地淘汰和广播照常执行
+            deleteRedis(keys);
+            keys.forEach(this::evictLocal);
+            // 通知其他节点清理各自的一级缓存
+            broadcastInvalidation(ids);
+        };
+        invalidatePass.run();
+        scheduleSecondPass(keys, invalidatePass);
+
+        // 也可以顺便把锁删了(虽然不需要，因为锁是临时的)
+        // Redisson 的锁是独立的 Key，不影响业务 Key
+    }
+
+    /**
+     * 数据被删除：直接写入空值占位，后续请求不再回源
+     * (布隆过滤器不支持删除，已删除的ID由空值缓存兜底)
+     *
+     * @param id 主键ID
+     */
+    public void invalidateAsAbsent(String id) {
+        invalidateAllAsAbsent(List.of(id));
+    }
+
+    /**
+     * 批量写入空值占位 (一次 Pipeline)，同样延迟后再写一次，覆盖窗口内被读者写回的旧数据
+     */
+    private void invalidateAllAsAbsent(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!properties.getNullValue().isEnabled()) {
+            invalidateAll(ids);
+            return;
+        }
+        List<String> keys = ids.stream().map(this::buildKey).toList();
+        Runnable markAbsent = () -> {
+            putNullValues(keys);
+            broadcastInvalidation(ids);
+        };
+        markAbsent.run();
+        scheduleSecondPass(keys, markAbsent);
+    }
+
+    private void putNullValues(List<String> keys) {
+        byte[] rawNull = rawValue(NULL_VALUE);
+        Expiration nullTtl = Expiration.from(properties.getNullValue().getTtl());
+        // 与删除相同：Redis 这一步失败不影响本地空值占位
+        redisBreaker.call(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            keys.forEach(key -> connection.stringCommands().set(rawKey(key), rawNull, nullTtl, SetOption.upsert()));
+            return null;
+        }), null);
+        keys.forEach(key -> {
+            evictLocal(key);
+            nullValueCache.put(key, Boolean.TRUE);
+        });
+    }
+
+    /**
+     * 多 Key DEL，按批拆分后在一个 Pipeline 中发送 (集群模式下由客户端按 Slot 拆分)；异常由熔断器吞掉并计入统计
+     */
+    private void deleteRedis(List<String> keys) {
+        int batchSize = properties.getInvalidation().getBatchSize();
+        redisBreaker.call(() -> redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                byte[][] rawKeys = keys.subList(from, Math.min(from + batchSize, keys.size())).stream()
+                        .map(this::rawKey)
+                        .toArray(byte[][]::new);
+                connection.keyCommands().del(rawKeys);
+            }
+            return null;
+        }), null);
+    }
+
+    private void scheduleSecondPass(List<String> keys, Runnable secondPass) {
+        Duration delay = properties.getInvalidation().getSecondDeleteDelay();
+        if (delay == null || delay.isZero()) {
+            return;
+        }
+        try {
+            invalidationScheduler.schedule(() -> {
+                try {
+                    secondPass.run();
+                } catch (Exception e) {
+                    log.warn("Cache second delete failed: {} {}", getCachePrefix(), keys.size(), e);
+                }
+            }, Instant.now().plus(delay));
+        } catch (RejectedExecutionException e) {
+            log.warn("Cache second delete rejected: {} {}", getCachePrefix(), keys.size());
+        }
+    }
+
+    /* ---------------- 事务提交后执行 ---------------- */
+
+    /**
+     * 提交后删除缓存 (同一事务内的操作合并为一次批量执行)；没有事务时立即执行
+     */
+    public void invalidateAfterCommit(String id) {
+        PendingCacheOps<T> ops = pendingOps();
+        if (ops == null) {
+            invalidate(id);
+        } else {
+            ops.invalidate(id);
+        }
+    }
+
+    /**
+     * 提交后写入空值占位 (数据已删除)；没有事务时立即执行
+     */
+    public void invalidateAsAbsentAfterCommit(String id) {
+        PendingCacheOps<T> ops = pendingOps();
+        if (ops == null) {
+            invalidateAsAbsent(id);
+        } else {
+            ops.markAbsent(id);
+        }
+    }
+
+    /**
+     * 提交后写穿 (entity 应为事务内读到/写入的最新数据)；没有事务时立即执行
+     */
+    public void writeThroughAfterCommit(String id, T entity) {
+        PendingCacheOps<T> ops = pendingOps();
+        if (ops == null) {
+            writeThrough(id, entity);
+        } else {
+            ops.write(id, entity);
+        }
+    }
+
+    /**
+     * 当前事务的待执行操作，首次调用时绑定到事务并注册提交回调；不在事务中返回 null
+     * 回滚时直接丢弃，缓存保持原样
+     */
+    @SuppressWarnings("unchecked")
+    private PendingCacheOps<T> pendingOps() {
+        if (!TransactionHooks.inTransaction()) {
+            return null;
+        }
+        PendingCacheOps<T> ops = (PendingCacheOps<T>) TransactionSynchronizationManager.getResource(this);
+        if (ops != null) {
+            return ops;
+        }
+        PendingCacheOps<T> newOps = new PendingCacheOps<>();
+        TransactionSynchronizationManager.bindResource(this, newOps);
+        TransactionHooks.afterCommit(() -> flush(newOps),
+                () -> TransactionSynchronizationManager.unbindResourceIfPossible(AbstractCacheManager.this));
+        return newOps;
+    }
+
+    private void flush(PendingCacheOps<T> ops) {
+        // 提交已经完成，这里的异常只能记录，缓存最多脏一个 TTL
+        try {
+            writeThroughAll(ops.getWrites());
+        } catch (Exception e) {
+            log.error("Cache write-through after commit failed: {} {}", getCachePrefix(), ops.getWrites().keySet(), e);
+        }
+        try {
+            invalidateAll(ops.getInvalidateIds());
+        } catch (Exception e) {
+            log.error("Cache invalidation after commit failed: {} {}", getCachePrefix(), ops.getInvalidateIds(), e);
+        }
+        try {
+            invalidateAllAsAbsent(ops.getAbsentIds());
+        } catch (Exception e) {
+            log.error("Cache absent marking after commit failed: {} {}", getCachePrefix(), ops.getAbsentIds(), e);
+        }
+    }
+
+    /* ---------------- Refresh-Ahead (逻辑过期) ---------------- */
+
+    /**
+     * 是否开启逻辑过期模式，子类可按实体单独开关
+     */
+    protected boolean isRefreshAheadEnabled() {
+        return properties.getRefreshAhead().isEnabled();
+    }
+
+    private Object wrapForCache(T obj) {
+        if (!isRefreshAheadEnabled()) {
+            return obj;
+        }
+        long softTtlMillis = properties.getRefreshAhead().getSoftTtl().toMillis();
+        return CacheEnvelope.of(obj, System.currentTimeMillis() + softTtlMillis);
+    }
+
+    /**
+     * 提交后台刷新任务：同一个 Key 在本节点同时只会有一个刷新任务
+     */
+    private void scheduleRefresh(String key) {
+        if (!refreshingKeys.add(key)) {
+            return;
+        }
+        try {
+            cacheLoadExecutor.execute(() -> {
+                try {
+                    refresh(key);
+                } catch (Exception e) {
+                    log.error("Cache Refresh Error: {}", key, e);
+                } finally {
+                    refreshingKeys.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 回源线程池已满，下一次读到旧值时再尝试
+            refreshingKeys.remove(key);
+            log.warn("Cache refresh rejected: {}", key);
+        }
+    }
+
+    /**
+     * 后台刷新：不等锁，抢不到说明其他节点正在刷新
+     */
+    private void refresh(String key) throws InterruptedException {
+        // Redis 熔断中：继续返回一级缓存里的旧值，恢复后再刷新
+        if (redisBreaker.isOpen()) {
+            return;
+        }
+        RLock lock = redissonClient.getLock("lock:" + key);
+        if (!lock.tryLock(0, LOCK_LEASE_MS, TimeUnit.MILLISECONDS)) {
+            return;
+        }
+        try {
+            // 其他节点可能已经刷新过二级缓存，此时只需要更新本地一级缓存
+            Object redisObj = getFromRedis(key);
+            if (redisObj instanceof CacheEnvelope envelope && !envelope.isStaleAt(System.currentTimeMillis())) {
+                putLocal(key, envelope);
+                return;
+            }
+            log.info("Cache Refresh-Ahead, Query DB: {}", key);
+            T dbObj = dbBulkhead.call(() -> metrics.timeDbFetch(() -> fetchFromDb(key.substring(getCachePrefix().length()))));
+            if (dbObj != null) {
+                Object cacheValue = wrapForCache(dbObj);
+                if (redisBreaker.call(() -> writeRedis(key, dbObj, cacheValue), Boolean.TRUE)) {
+                    putLocal(key, cacheValue);
+                }
+            } else {
+                evictLocal(key);
+                putNullValue(key);
+            }
+        } finally {
+            try {
+                if (lock.isHeldByCurrentThread()) {
+                    lock.unlock();
+                }
+            } catch (Exception e) {
+                log.warn("Unlock failed: {}", key, e);
+            }
+        }
+    }
+
+    /* ---------------- 跨节点一级缓存失效广播 ---------------- */
+
+    @PostConstruct
+    public void init() {
+        bindMetrics();
+        subscribeInvalidation();
+    }
+
+    /**
+     * 订阅本缓存的失效广播 (每种缓存前缀一个 Topic)
+     * Redisson 断线重连后会自动重新订阅；断线期间丢失的消息由一级缓存 TTL 兜底
+     */
+    private void subscribeInvalidation() {
+        getInvalidationTopic().addListener(String.class, (channel, message) -> onInvalidationMessage(message));
+    }
+
+    /**
+     * 广播失效消息，格式: nodeId|id1,id2,...
+     */
+    protected void broadcastInvalidation(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            getInvalidationTopic().publish(NODE_ID + INVALIDATION_SEPARATOR + String.join(",", ids));
+        } catch (Exception e) {
+            // 广播失败时其他节点的一级缓存最多脏一个 TTL
+            log.warn("Cache invalidation broadcast failed: {} {}", getCachePrefix(), ids, e);
+        }
+    }
+
+    private void onInvalidationMessage(String message) {
+        int separator = message.indexOf(INVALIDATION_SEPARATOR);
+        if (separator < 0 || NODE_ID.equals(message.substring(0, separator))) {
+            // 格式不对或自己发出的消息 (本地已经清理过)
+            return;
+        }
+        for (String id : message.substring(separator + 1).split(",")) {
+            if (!id.isEmpty()) {
+                evictLocal(buildKey(id));
+            }
+        }
+        log.debug("L1 invalidated by broadcast: {}", message);
+    }
+
+    private void evictLocal(String key) {
+        hotCache.invalidate(key);
+        caffeineCache.invalidate(key);
+        nullValueCache.invalidate(key);
+    }
+
+    private RTopic getInvalidationTopic() {
+        return redissonClient.getTopic("cache:invalidate:" + getCachePrefix(), StringCodec.INSTANCE);
+    }
+
+    /* ---------------- 布隆过滤器 ---------------- */
+
+    /**
+     * 新增数据时登记ID，必须在数据对读请求可见之前调用
+     *
+     * @param id 主键ID
+     */
+    public void registerId(String id) {
+        if (!properties.getBloomFilter().isEnabled()) {
+            return;
+        }
+        try {
+            getBloomFilter().add(id);
+        } catch (Exception e) {
+            // 过滤器尚未初始化时登记失败不影响业务，构建阶段会全量扫描补齐
+            log.warn("Bloom filter add failed: {}{}", getCachePrefix(), id, e);
+        }
+    }
+
+    /**
+     * 启动时构建布隆过滤器
+     * <p>
+     * 过滤器存放在 Redis 中由所有节点共享：只初始化一次，之后只增不删，
+     * 全量扫描完成后写入 ready 标记，其他节点看到标记后才开始拦截 (见 {@link #mightExist(String)})。
+     * 全量扫描在后台线程执行，不阻塞启动；构建完成前一律放行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initBloomFilter() {
+        if (!properties.getBloomFilter().isEnabled()) {
+            return;
+        }
+        try {
+            cacheLoadExecutor.execute(this::buildBloomFilter);
+        } catch (RejectedExecutionException e) {
+            log.warn("Bloom filter build rejected, filter stays disabled on this node until another node builds it: {}",
+                    getBloomFilterName());
+        }
+    }
+
+    /**
+     * 在 build-timeout 内反复尝试：其他节点已构建完成则直接使用，否则抢锁构建。
+     * 锁带租期 (= build-timeout)，持锁节点卡死或宕机时锁自动释放，其他节点在截止前接手
+     */
+    private void buildBloomFilter() {
+        MultiLevelCacheProperties.BloomFilter config = properties.getBloomFilter();
+        long deadline = System.nanoTime() + config.getBuildTimeout().toNanos();
+        try {
+            RBloomFilter<String> bloomFilter = getBloomFilter();
+            bloomFilter.tryInit(config.getExpectedInsertions(), config.getFalseProbability());
+            RBucket<Boolean> readyFlag = getBloomReadyFlag();
+            RLock lock = redissonClient.getLock("lock:" + getBloomFilterName());
+            while (System.nanoTime() < deadline) {
+                if (Boolean.TRUE.equals(readyFlag.get())) {
+                    bloomFilterReady = true;
+                    return;
+                }
+                if (!lock.tryLock(config.getLockWait().toMillis(), config.getBuildTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                    // 其他节点正在构建，等它完成或锁过期
+                    continue;
+                }
+                try {
+                    if (!Boolean.TRUE.equals(readyFlag.get())) {
+                        scanIntoBloomFilter(bloomFilter, deadline);
+                        readyFlag.set(Boolean.TRUE);
+                    }
+                    bloomFilterReady = true;
+                    return;
+                } finally {
+                    if (lock.isHeldByCurrentThread()) {
+                        lock.unlock();
+                    }
+                }
+            }
+            log.warn("Bloom filter not ready within {}: {}", config.getBuildTimeout(), getBloomFilterName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 构建失败不影响业务，过滤器保持放行；ready 标记未写入，下次启动重新扫描 (重复添加无副作用)
+            log.error("Bloom filter build failed: {}", getBloomFilterName(), e);
+        }
+    }
+
+    private void scanIntoBloomFilter(RBloomFilter<String> bloomFilter, long deadline) {
+        long start = System.currentTimeMillis();
+        LongAdder total = new LongAdder();
+        scanAllIds(batch -> {
+            if (System.nanoTime() >= deadline) {
+                throw new IllegalStateException("Bloom filter build timed out after " + total.sum() + " ids");
+            }
+            batch.forEach(bloomFilter::add);
+            total.add(batch.size());
+        });
+        log.info("Bloom filter built: {} ids={} cost={}ms", getBloomFilterName(), total.sum(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 布隆过滤器判断ID是否可能存在；未开启或尚未构建完成时一律放行
+     */
+    private boolean mightExist(String id) {
+        // Redis 熔断中布隆过滤器不可用，一律放行 (回源由舱壁保护)
+        if (!properties.getBloomFilter().isEnabled() || redisBreaker.isOpen()) {
+            return true;
+        }
+        try {
+            if (!bloomFilterReady) {
+                // 其他节点可能仍在构建，构建完成前不拦截
+                bloomFilterReady = Boolean.TRUE.equals(getBloomReadyFlag().get());
+                if (!bloomFilterReady) {
+                    return true;
+                }
+            }
+            return getBloomFilter().contains(id);
+        } catch (Exception e) {
+            log.warn("Bloom filter check failed, pass through: {}{}", getCachePrefix(), id, e);
+            return true;
+        }
+    }
+
+    private RBloomFilter<String> getBloomFilter() {
+        return redissonClient.getBloomFilter(getBloomFilterName());
+    }
+
+    private RBucket<Boolean> getBloomReadyFlag() {
+        return redissonClient.getBucket(getBloomFilterName() + ":ready");
+    }
+
+    private String getBloomFilterName() {
+        return "bloom:" + getCachePrefix();
+    }
+
+    /* ---------------- 热点 Key 驻留 ---------------- */
+
+    private void recordAccess(String id) {
+        if (hotKeyDetector != null) {
+            hotKeyDetector.record(id);
+        }
+    }
+
+    /**
+     * 当前热点 Key (本节点视角)，按访问次数倒序
+     */
+    public List<HotKey> getHotKeys() {
+        if (hotKeyDetector == null) {
+            return List.of();
+        }
+        List<HotKey> hotKeys = hotKeyDetector.hotKeys(properties.getHotKey().getMaxHotKeys());
+        hotKeys.forEach(hotKey -> hotKey.setPinned(hotCache.asMap().containsKey(buildKey(hotKey.getId()))));
+        return hotKeys;
+    }
+
+    /**
+     * 重新计算热点集合并主动刷新驻留的值 (由定时任务按 refresh-interval 调用)
+     * <ul>
+     *     <li>新热点：从 Redis 批量读取后驻留，同时移出共享一级缓存</li>
+     *     <li>仍然是热点：重新从 Redis 读取覆盖，驻留值最多落后一个刷新间隔</li>
+     *     <li>已降温：移回共享一级缓存</li>
+     * </ul>
+     * Redis 中已过期的热点直接批量回源并回填两级缓存，避免过期瞬间大量请求同时回源
+     */
+    public void refreshHotKeys() {
+        if (hotKeyDetector == null) {
+            return;
+        }
+        List<HotKey> hotKeys = hotKeyDetector.hotKeys(properties.getHotKey().getMaxHotKeys());
+        Set<String> hotKeySet = new HashSet<>();
+        hotKeys.forEach(hotKey -> hotKeySet.add(buildKey(hotKey.getId())));
+
+        // 1. 降温的 Key 移回共享一级缓存
+        for (Map.Entry<String, Object> entry : new ArrayList<>(hotCache.asMap().entrySet())) {
+            if (!hotKeySet.contains(entry.getKey())) {
+                hotCache.invalidate(entry.getKey());
+                putLocal(entry.getKey(), entry.getValue());
+            }
+        }
+        // Redis 熔断中：保留当前驻留的值，恢复后再刷新
+        if (hotKeys.isEmpty() || redisBreaker.isOpen()) {
+            return;
+        }
+
+        // 2. 一次 MGET 刷新全部热点
+        List<String> ids = hotKeys.stream().map(HotKey::getId).toList();
+        List<String> hotKeyList = ids.stream().map(this::buildKey).toList();
+        List<Object> redisValues = redisBreaker.call(() -> redisTemplate.opsForValue().multiGet(hotKeyList), null);
+        if (redisValues == null) {
+            return;
+        }
+        List<String> missIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String key = buildKey(ids.get(i));
+            Object redisObj = redisValues.get(i);
+            if (redisObj == null) {
+                missIds.add(ids.get(i));
+            } else if (NULL_VALUE.equals(redisObj)) {
+                // 热点数据已被删除，交给空值缓存
+                hotCache.invalidate(key);
+                caffeineCache.invalidate(key);
+                nullValueCache.put(key, Boolean.TRUE);
+            } else {
+                pin(key, redisObj);
+            }
+        }
+
+        // 3. Redis 中已过期的热点批量回源
+        if (!missIds.isEmpty()) {
+            Map<String, T> dbObjs = dbBulkhead.call(() -> metrics.timeDbBatchFetch(() -> fetchBatchFromDb(missIds)));
+            putAllToCache(dbObjs, missIds.stream().filter(id -> !dbObjs.containsKey(id)).toList());
+            dbObjs.keySet().forEach(id -> {
+                String key = buildKey(id);
+                Object cacheValue = hotCache.getIfPresent(key);
+                pin(key, cacheValue != null ? cacheValue : caffeineCache.getIfPresent(key));
+            });
+        }
+        log.debug("Hot keys refreshed: {} pinned={} reloaded={}", getCachePrefix(), hotKeys.size(), missIds.size());
+    }
+
+    private void pin(String key, Object cacheValue) {
+        if (cacheValue == null) {
+            return;
+        }
+        // 与 putLocal 相同的版本保护：刷新读到的 Redis 值可能早于并发写穿的新版本，
+        // 不能覆盖已驻留或共享一级缓存中更新的数据
+        Object local = caffeineCache.getIfPresent(key);
+        hotCache.asMap().compute(key, (k, v) -> newerOf(newerOf(v, local), cacheValue));
+        caffeineCache.invalidate(key);
+        nullValueCache.invalidate(key);
+    }
+
+    /* ---------------- 启动预热 ---------------- */
+
+    /**
+     * 启动预热：按 {@link #scanWarmupIds} 给出的顺序分批 MGET Redis 填充一级缓存，
+     * Redis 中没有的批量回源 (与 getAll 相同，不走分布式锁)，直到扫描结束或预算耗尽
+     *
+     * @param deadlineNanos 截止时间 (System.nanoTime)
+     * @return 本缓存预热的条数
+     */
+    public long warmUp(long deadlineNanos) {
+        MultiLevelCacheProperties.Warmup config = properties.getWarmup();
+        long start = System.nanoTime();
+        warmupProgress.setState(WarmupProgress.State.RUNNING);
+        try {
+            scanWarmupIds(config.getBatchSize(), ids -> {
+                warmBatch(ids);
+                warmupProgress.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                log.info("Cache warmup progress: {} warmed={} fromRedis={} cost={}ms", getCacheName(),
+                        warmupProgress.getWarmed(), warmupProgress.getFromRedis(), warmupProgress.getElapsedMs());
+                if (warmupProgress.getWarmed() >= config.getMaxEntries() || System.nanoTime() >= deadlineNanos) {
+                    warmupProgress.setState(WarmupProgress.State.BUDGET_EXHAUSTED);
+                    return false;
+                }
+                return true;
+            });
+            if (warmupProgress.getState() == WarmupProgress.State.RUNNING) {
+                warmupProgress.setState(WarmupProgress.State.COMPLETED);
+            }
+        } catch (Exception e) {
+            // 预热失败不阻止启动，只是首批请求会慢一些
+            warmupProgress.setState(WarmupProgress.State.FAILED);
+            log.error("Cache warmup failed: {}", getCacheName(), e);
+        }
+        warmupProgress.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Cache warmup {}: {} warmed={} cost={}ms", warmupProgress.getState(), getCacheName(),
+                warmupProgress.getWarmed(), warmupProgress.getElapsedMs());
+        return warmupProgress.getWarmed();
+    }
+
+    /**
+     * 预热一批：一次 MGET，未命中的一次批量回源并 Pipeline 回填
+     * (不计入命中率指标和热点探测)
+     */
+    private void warmBatch(List<String> ids) {
+        List<String> keys = ids.stream().map(this::buildKey).toList();
+        List<Object> redisValues = redisBreaker.call(() -> redisTemplate.opsForValue().multiGet(keys), null);
+        List<String> missIds = new ArrayList<>();
+        long fromRedis = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            Object redisObj = redisValues == null ? null : redisValues.get(i);
+            if (redisObj == null) {
+                missIds.add(ids.get(i));
+            } else if (!NULL_VALUE.equals(redisObj)) {
+                putLocal(keys.get(i), redisObj);
+                fromRedis++;
+            }
+        }
+        long fromDb = 0;
+        if (!missIds.isEmpty()) {
+            Map<String, T> dbObjs = dbBulkhead.call(() -> metrics.timeDbBatchFetch(() -> fetchBatchFromDb(missIds)));
+            putAllToCache(dbObjs, missIds.stream().filter(id -> !dbObjs.containsKey(id)).toList());
+            fromDb = dbObjs.size();
+        }
+        warmupProgress.setFromRedis(warmupProgress.getFromRedis() + fromRedis);
+        warmupProgress.setWarmed(warmupProgress.getWarmed() + fromRedis + fromDb);
+    }
+
+    /* ---------------- 统计 ---------------- */
+
+    /**
+     * 指标名中使用的缓存名 (去掉前缀末尾的冒号，例如 event:detail)
+     */
+    public String getCacheName() {
+        String prefix = getCachePrefix();
+        return prefix.endsWith(":") ? prefix.substring(0, prefix.length() - 1) : prefix;
+    }
+
+    /**
+     * 注册本缓存的全部指标：自定义计数/计时器、防穿透计数、两个 Caffeine 的 recordStats 统计
+     */
+    private void bindMetrics() {
+        String cacheName = getCacheName();
+        metrics = new CacheMetrics(meterRegistry, cacheName);
+        redisBreaker = new RedisCircuitBreaker(cacheName, properties.getRedisBreaker(), meterRegistry);
+        dbBulkhead = new DbBulkhead(cacheName, properties.getDbBulkhead(), meterRegistry);
+        FunctionCounter.builder("heac.cache.null.hits", nullValueHits, LongAdder::sum)
+                .description("Lookups answered by a cached null placeholder")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        FunctionCounter.builder("heac.cache.bloom.rejects", bloomFilterRejects, LongAdder::sum)
+                .description("Lookups rejected by the Bloom filter")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        // cache.gets / cache.evictions / cache.size 等标准指标
+        CaffeineCacheMetrics.monitor(meterRegistry, caffeineCache, cacheName);
+        CaffeineCacheMetrics.monitor(meterRegistry, nullValueCache, cacheName + ":null");
+        CaffeineCacheMetrics.monitor(meterRegistry, hotCache, cacheName + ":hot");
+        Gauge.builder("heac.cache.hot.pinned", hotCache, Cache::estimatedSize)
+                .description("Hot keys currently pinned in the local hot set")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 当前统计快照 (actuator 端点 heaccache 使用)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = metrics.snapshot();
+        stats.put("nullValueHits", getNullValueHits());
+        stats.put("bloomFilterRejects", getBloomFilterRejects());
+        stats.put("local", caffeineStats(caffeineCache));
+        stats.put("localNull", caffeineStats(nullValueCache));
+        stats.put("localHot", caffeineStats(hotCache));
+        stats.put("warmup", warmupProgress);
+        stats.put("redisBreaker", Map.of(
+                "state", redisBreaker.getState(),
+                "rejected", redisBreaker.getRejected(),
+                "errors", redisBreaker.getErrors()));
+        stats.put("dbBulkhead", Map.of(
+                "availablePermits", dbBulkhead.getAvailablePermits(),
+                "rejected", dbBulkhead.getRejected()));
+        return stats;
+    }
+
+    private static Map<String, Object> caffeineStats(Cache<String, ?> cache) {
+        CacheStats caffeineStats = cache.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("estimatedSize", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> {
+            if (eviction.isWeighted()) {
+                stats.put("weightedSizeBytes", eviction.weightedSize().orElse(0));
+                stats.put("maximumBytes", eviction.getMaximum());
+            }
+        });
+        stats.put("hitRate", caffeineStats.hitRate());
+        stats.put("evictionCount", caffeineStats.evictionCount());
+        stats.put("evictionWeight", caffeineStats.evictionWeight());
+        return stats;
+    }
+
+    /**
+     * 空值缓存命中次数 (每次命中都少一次 DB 查询)
+     */
+    public long getNullValueHits() {
+        return nullValueHits.sum();
+    }
+
+    /**
+     * 布隆过滤器拦截次数 (每次拦截都少一次抢锁和 DB 查询)
+     */
+    public long getBloomFilterRejects() {
+        return bloomFilterRejects.sum();
     }
 }
@@ -0,0 +1,37 @@
+package com.kayz.heac.event.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 逻辑过期包装 (Refresh-Ahead 模式下两级缓存存放的值)
+ * <p>
+ * Redis 的物理 TTL 只用来清理冷数据；到达逻辑过期时间后读请求仍直接返回旧值，
+ * 同时由一个后台任务回源刷新
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(staticName = "of")
+public class CacheEnvelope implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 真实缓存的实体
+     */
+    private Object data;
+
+    /**
+     * 逻辑过期时间 (毫秒时间戳)
+     */
+    private long logicalExpireAt;
+
+    /**
+     * 注意：带参数，避免被 Jackson 当成属性序列化
+     */
+    public boolean isStaleAt(long nowMillis) {
+        return nowMillis >= logicalExpireAt;
+    }
+}
@@ -0,0 +1,173 @@
+package com.kayz.heac.event.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 多级缓存指标 (每个缓存前缀一组，通过 cache 标签区分)
+ * <ul>
+ *     <li>heac.cache.gets{level=l1|l2, result=hit|miss}：首次查缓存的命中情况 (空值占位也算命中)</li>
+ *     <li>heac.cache.double.check.hits：拿到锁后发现其他线程/节点已回填</li>
+ *     <li>heac.cache.lock.wait{acquired}：等分布式锁的耗时</li>
+ *     <li>heac.cache.lock.retries / heac.cache.lock.exhausted：抢锁失败重试次数 / 放弃等锁直接回源次数</li>
+ *     <li>heac.cache.db.fetch{mode=single|batch}：回源数据库耗时直方图</li>
+ * </ul>
+ */
+class CacheMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter doubleCheckHits;
+    private final Counter lockRetries;
+    private final Counter lockExhausted;
+    private final Timer lockAcquired;
+    private final Timer lockFailed;
+    private final Timer dbFetchSingle;
+    private final Timer dbFetchBatch;
+
+    CacheMetrics(MeterRegistry registry, String cacheName) {
+        this.l1Hits = gets(registry, cacheName, "l1", "hit");
+        this.l1Misses = gets(registry, cacheName, "l1", "miss");
+        this.l2Hits = gets(registry, cacheName, "l2", "hit");
+        this.l2Misses = gets(registry, cacheName, "l2", "miss");
+        this.doubleCheckHits = Counter.builder("heac.cache.double.check.hits")
+                .description("Cache filled by another loader while waiting for the lock")
+                .tag("cache", cacheName)
+                .register(registry);
+        this.lockRetries = Counter.builder("heac.cache.lock.retries")
+                .description("Failed lock attempts that were retried")
+                .tag("cache", cacheName)
+                .register(registry);
+        this.lockExhausted = Counter.builder("heac.cache.lock.exhausted")
+                .description("Loads that gave up waiting for the lock and queried the DB directly")
+                .tag("cache", cacheName)
+                .register(registry);
+        this.lockAcquired = lockWait(registry, cacheName, true);
+        this.lockFailed = lockWait(registry, cacheName, false);
+        this.dbFetchSingle = dbFetch(registry, cacheName, "single");
+        this.dbFetchBatch = dbFetch(registry, cacheName, "batch");
+    }
+
+    void recordL1(boolean hit) {
+        (hit ? l1Hits : l1Misses).increment();
+    }
+
+    void recordL1(long hits, long misses) {
+        l1Hits.increment(hits);
+        l1Misses.increment(misses);
+    }
+
+    void recordL2(boolean hit) {
+        (hit ? l2Hits : l2Misses).increment();
+    }
+
+    void recordL2(long hits, long misses) {
+        l2Hits.increment(hits);
+        l2Misses.increment(misses);
+    }
+
+    void recordDoubleCheckHit() {
+        doubleCheckHits.increment();
+    }
+
+    /**
+     * 记录一次等锁结果，没拿到锁同时计一次重试
+     */
+    void recordLockWait(long elapsedNanos, boolean acquired) {
+        (acquired ? lockAcquired : lockFailed).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            lockRetries.increment();
+        }
+    }
+
+    void recordLockExhausted() {
+        lockExhausted.increment();
+    }
+
+    <R> R timeDbFetch(Supplier<R> fetch) {
+        return dbFetchSingle.record(fetch);
+    }
+
+    <R> R timeDbBatchFetch(Supplier<R> fetch) {
+        return dbFetchBatch.record(fetch);
+    }
+
+    /**
+     * 当前累计值快照 (供 actuator 端点展示)
+     */
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("l1", levelStats(l1Hits, l1Misses));
+        snapshot.put("l2", levelStats(l2Hits, l2Misses));
+        snapshot.put("doubleCheckHits", (long) doubleCheckHits.count());
+        snapshot.put("lockRetries", (long) lockRetries.count());
+        snapshot.put("lockExhausted", (long) lockExhausted.count());
+        snapshot.put("lockWaitAcquired", timerStats(lockAcquired));
+        snapshot.put("lockWaitFailed", timerStats(lockFailed));
+        snapshot.put("dbFetch", timerStats(dbFetchSingle));
+        snapshot.put("dbBatchFetch", timerStats(dbFetchBatch));
+        return snapshot;
+    }
+
+    private static Map<String, Object> levelStats(Counter hits, Counter misses) {
+        long hit = (long) hits.count();
+        long miss = (long) misses.count();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hit);
+        stats.put("misses", miss);
+        stats.put("hitRatio", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+        return stats;
+    }
+
+    private static Map<String, Object> timerStats(Timer timer) {
+        HistogramSnapshot histogram = timer.takeSnapshot();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.count());
+        stats.put("meanMs", histogram.mean(TimeUnit.MILLISECONDS));
+        stats.put("maxMs", histogram.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : histogram.percentileValues()) {
+            stats.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return stats;
+    }
+
+    private static Counter gets(MeterRegistry registry, String cacheName, String level, String result) {
+        return Counter.builder("heac.cache.gets")
+                .description("First-pass cache lookups by level")
+                .tag("cache", cacheName)
+                .tag("level", level)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Timer lockWait(MeterRegistry registry, String cacheName, boolean acquired) {
+        return Timer.builder("heac.cache.lock.wait")
+                .description("Time spent waiting for the distributed load lock")
+                .tag("cache", cacheName)
+                .tag("acquired", String.valueOf(acquired))
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    private static Timer dbFetch(MeterRegistry registry, String cacheName, String mode) {
+        return Timer.builder("heac.cache.db.fetch")
+                .description("Latency of loading cache misses from the database")
+                .tag("cache", cacheName)
+                .tag("mode", mode)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.kayz.heac.event.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多级缓存统计端点：GET /actuator/heaccache 查看全部，GET /actuator/heaccache/{cacheName} 查看单个
+ * <p>
+ * 返回累计值 (自进程启动)，趋势和报警请使用 /actuator/metrics 下的 heac.cache.* 指标
+ */
+@Component
+@Endpoint(id = "heaccache")
+public class CacheStatsEndpoint {
+
+    private final List<AbstractCacheManager<?>> cacheManagers;
+
+    public CacheStatsEndpoint(List<AbstractCacheManager<?>> cacheManagers) {
+        this.cacheManagers = cacheManagers;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        cacheManagers.forEach(manager -> result.put(manager.getCacheName(), manager.getStats()));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String cacheName) {
+        return cacheManagers.stream()
+                .filter(manager -> manager.getCacheName().equals(cacheName))
+                .findFirst()
+                .map(AbstractCacheManager::getStats)
+                .orElse(null);
+    }
+}
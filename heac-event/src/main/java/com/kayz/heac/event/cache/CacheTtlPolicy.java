@@ -0,0 +1,34 @@
+package com.kayz.heac.event.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 缓存过期策略：按实体内容决定两级缓存的 TTL
+ *
+ * @param <T> 实体类型
+ */
+public interface CacheTtlPolicy<T> {
+
+    /**
+     * 二级缓存 (Redis) 的过期时间
+     */
+    Duration redisTtl(T entity);
+
+    /**
+     * 一级缓存 (Caffeine) 的过期时间
+     */
+    Duration localTtl(T entity);
+
+    /**
+     * 在基础 TTL 上随机增加 [0, jitterRatio] 比例的时长，打散同一批写入的过期时刻
+     * (只加不减，保证实际 TTL 不低于配置值)
+     */
+    static Duration withJitter(Duration base, double jitterRatio) {
+        if (jitterRatio <= 0) {
+            return base;
+        }
+        long extraMillis = (long) (base.toMillis() * jitterRatio * ThreadLocalRandom.current().nextDouble());
+        return base.plusMillis(extraMillis);
+    }
+}
@@ -0,0 +1,43 @@
+package com.kayz.heac.event.cache;
+
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 启动预热：在 ApplicationRunner 阶段同步执行，Spring Boot 在全部 Runner 结束后才发布
+ * ReadinessState.ACCEPTING_TRAFFIC，因此预热完成 (或预算耗尽) 前 Pod 不会就绪、不会接流量
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupRunner implements ApplicationRunner {
+
+    private final List<AbstractCacheManager<?>> cacheManagers;
+    private final MultiLevelCacheProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        MultiLevelCacheProperties.Warmup config = properties.getWarmup();
+        if (!config.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        // 所有缓存共用一个时间预算，按注册顺序依次预热
+        long deadline = start + config.getTimeBudget().toNanos();
+        long total = 0;
+        for (AbstractCacheManager<?> cacheManager : cacheManagers) {
+            if (System.nanoTime() >= deadline) {
+                log.warn("Cache warmup time budget exhausted before: {}", cacheManager.getCacheName());
+                break;
+            }
+            total += cacheManager.warmUp(deadline);
+        }
+        log.info("Cache warmup finished: entries={} cost={}ms", total, (System.nanoTime() - start) / 1_000_000);
+    }
+}
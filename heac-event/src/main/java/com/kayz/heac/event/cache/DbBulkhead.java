@@ -0,0 +1,69 @@
+package com.kayz.heac.event.cache;
+
+import com.kayz.heac.common.exception.CacheUnavailableException;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 回源数据库的隔离舱 (信号量)：限制单节点同时查库的请求数
+ * <p>
+ * 平时有分布式锁 + Single-Flight 挡在前面，很少用满；Redis 故障时所有未命中都会打到数据库，
+ * 这里保证单节点最多 max-concurrent 个并发查询，超出的请求等待 max-wait 后快速失败
+ */
+class DbBulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final String cacheName;
+    private final Counter rejected;
+
+    DbBulkhead(String cacheName, MultiLevelCacheProperties.DbBulkhead config, MeterRegistry registry) {
+        this.cacheName = cacheName;
+        this.permits = new Semaphore(config.getMaxConcurrent());
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.rejected = Counter.builder("heac.cache.db.bulkhead.rejected")
+                .description("DB loads rejected because the bulkhead was full")
+                .tag("cache", cacheName)
+                .register(registry);
+        Gauge.builder("heac.cache.db.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free DB load permits")
+                .tag("cache", cacheName)
+                .register(registry);
+    }
+
+    /**
+     * @throws CacheUnavailableException 等待超时仍没有空闲许可
+     */
+    <R> R call(Supplier<R> dbCall) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheUnavailableException("回源被中断: " + cacheName);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new CacheUnavailableException("数据库繁忙，请稍后重试: " + cacheName);
+        }
+        try {
+            return dbCall.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    long getRejected() {
+        return (long) rejected.count();
+    }
+}
@@ -0,0 +1,48 @@
+package com.kayz.heac.event.cache;
+
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+
+import java.time.Duration;
+
+/**
+ * 默认过期策略：固定 TTL + 随机抖动
+ * <p>
+ * 子类通过 {@link #tierOf(Object)} 给实体分档，
+ * 每一档的 TTL 可以在 heac.cache.ttl.overrides 中单独配置
+ *
+ * @param <T> 实体类型
+ */
+public class DefaultTtlPolicy<T> implements CacheTtlPolicy<T> {
+
+    private final MultiLevelCacheProperties properties;
+
+    public DefaultTtlPolicy(MultiLevelCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 实体所属的档位，返回 null 表示使用默认 TTL
+     */
+    protected String tierOf(T entity) {
+        return null;
+    }
+
+    @Override
+    public Duration redisTtl(T entity) {
+        MultiLevelCacheProperties.TtlSpec spec = findOverride(entity);
+        Duration base = spec != null && spec.getRedis() != null ? spec.getRedis() : properties.getTtl().getRedis();
+        return CacheTtlPolicy.withJitter(base, properties.getTtl().getJitterRatio());
+    }
+
+    @Override
+    public Duration localTtl(T entity) {
+        MultiLevelCacheProperties.TtlSpec spec = findOverride(entity);
+        Duration base = spec != null && spec.getLocal() != null ? spec.getLocal() : properties.getLocal().getExpireAfterWrite();
+        return CacheTtlPolicy.withJitter(base, properties.getTtl().getJitterRatio());
+    }
+
+    private MultiLevelCacheProperties.TtlSpec findOverride(T entity) {
+        String tier = entity == null ? null : tierOf(entity);
+        return tier == null ? null : properties.getTtl().getOverrides().get(tier);
+    }
+}
@@ -1,5 +1,9 @@
 package com.kayz.heac.event.cache;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 通用实体缓存管理器接口
  *
@@ -15,6 +19,24 @@ public interface EntityCacheManager<T> {
      */
     T get(String id);
 
+    /**
+     * 非阻塞获取详情 (Caffeine -> Redis -> DB)，等锁和回源都不占用调用方线程
+     *
+     * @param id 主键ID (UUID String)
+     * @return 实体对象的 Future，不存在时结果为 null
+     */
+    CompletableFuture<T> getAsync(String id);
+
+    /**
+     * 批量获取详情 (Caffeine 批量命中 -> Redis MGET -> DB 批量查询)
+     * <p>
+     * 不存在的 ID 不会出现在结果中，结果顺序与入参顺序一致
+     *
+     * @param ids 主键ID集合
+     * @return ID -> 实体对象
+     */
+    Map<String, T> getAll(Collection<String> ids);
+
     /**
      * 失效缓存 (删除 Redis 和 Caffeine)
      *
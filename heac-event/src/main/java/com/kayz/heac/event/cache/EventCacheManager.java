@@ -1,25 +1,58 @@
 package com.kayz.heac.event.cache;
 
-import com.github.benmanes.caffeine.cache.Cache;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
 import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
 import com.kayz.heac.event.mapper.EventMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
 import static com.kayz.heac.common.consts.RedisPrefix.EVENT_KEY_PREFIX;
 
 @Component
 public class EventCacheManager extends AbstractCacheManager<Event> {
 
+    private static final int ID_SCAN_BATCH_SIZE = 1000;
+    /**
+     * 启动预热的事件状态，按优先级排列
+     */
+    private static final List<EventStatus> WARMUP_STATUSES = List.of(EventStatus.PUBLISHED, EventStatus.WARMUP);
+    /**
+     * 一级缓存名 (heac.cache.local.caches 下的配置 Key)
+     */
+    private static final String LOCAL_CACHE_NAME = "event";
+
     private final EventMapper eventMapper;
+    private final EventTtlPolicy eventTtlPolicy;
 
-    public EventCacheManager(Cache<String, Object> caffeineCache,
+    public EventCacheManager(LocalCacheFactory localCacheFactory,
                              RedisTemplate<String, Object> redisTemplate,
+                             ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
                              RedissonClient redissonClient,
-                             EventMapper eventMapper) {
-        super(caffeineCache, redisTemplate, redissonClient);
+                             MultiLevelCacheProperties properties,
+                             @Qualifier("cacheLoadExecutor") Executor cacheLoadExecutor,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("cacheInvalidationScheduler") TaskScheduler invalidationScheduler,
+                             EventMapper eventMapper,
+                             EventTtlPolicy eventTtlPolicy) {
+        super(localCacheFactory, LOCAL_CACHE_NAME, Event.class, EventCacheManager::estimateSize, redisTemplate, reactiveRedisTemplate, redissonClient, properties, cacheLoadExecutor, meterRegistry, invalidationScheduler);
         this.eventMapper = eventMapper;
+        this.eventTtlPolicy = eventTtlPolicy;
     }
 
     @Override
@@ -32,7 +65,91 @@ public class EventCacheManager extends AbstractCacheManager<Event> {
         return eventMapper.selectById(id);
     }
 
-    // 如果需要自定义过期时间，可以重写 getRedisTtl
-    // @Override
-    // protected long getRedisTtl() { return 30; }
+    @Override
+    protected Map<String, Event> fetchBatchFromDb(Collection<String> ids) {
+        // 一条 WHERE id IN (...) 查询
+        return eventMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity(), (a, b) -> a));
+    }
+
+    @Override
+    protected void scanAllIds(Consumer<List<String>> batchConsumer) {
+        scanIds(null, ID_SCAN_BATCH_SIZE, ids -> {
+            batchConsumer.accept(ids);
+            return true;
+        });
+    }
+
+    @Override
+    protected void scanWarmupIds(int batchSize, Predicate<List<String>> batchConsumer) {
+        // 进行中的事件优先 (当前读流量的主体)，其次是预热中的事件
+        for (EventStatus status : WARMUP_STATUSES) {
+            if (!scanIds(status, batchSize, batchConsumer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 按主键 Keyset 分页扫描ID，只查 id 一列 (逻辑删除的数据由 @TableLogic 自动排除)
+     *
+     * @param status 只扫描该状态，null 表示全部
+     * @return 是否扫描完毕 (false 表示被消费者中止)
+     */
+    private boolean scanIds(EventStatus status, int batchSize, Predicate<List<String>> batchConsumer) {
+        String lastId = null;
+        while (true) {
+            List<String> ids = eventMapper.selectObjs(Wrappers.<Event>lambdaQuery()
+                            .select(Event::getId)
+                            .eq(status != null, Event::getStatus, status)
+                            .gt(lastId != null, Event::getId, lastId)
+                            .orderByAsc(Event::getId)
+                            .last("LIMIT " + batchSize))
+                    .stream()
+                    .map(String::valueOf)
+                    .toList();
+            if (ids.isEmpty()) {
+                return true;
+            }
+            if (!batchConsumer.test(ids)) {
+                return false;
+            }
+            if (ids.size() < batchSize) {
+                return true;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    @Override
+    protected CacheTtlPolicy<Event> getTtlPolicy() {
+        // 按事件状态分档：已结束/已下架的缓存久一些，进行中的缓存短一些
+        return eventTtlPolicy;
+    }
+
+    @Override
+    protected Long versionOf(Event event) {
+        // 乐观锁版本号，每次更新 +1
+        return event.getVersion() == null ? null : event.getVersion().longValue();
+    }
+
+    /**
+     * Event 的堆内存估算：对象本身 + 各字符串 / 时间 / 包装类型字段 (status 为共享的枚举常量，不计入)
+     */
+    static int estimateSize(Event event) {
+        int size = ObjectSizes.align(ObjectSizes.OBJECT_HEADER + 13 * ObjectSizes.REFERENCE);
+        size += ObjectSizes.of(event.getId());
+        size += ObjectSizes.of(event.getTitle());
+        size += ObjectSizes.of(event.getSummary());
+        size += ObjectSizes.of(event.getCoverImg());
+        size += ObjectSizes.of(event.getCreatedBy());
+        size += ObjectSizes.of(event.getStartTime());
+        size += ObjectSizes.of(event.getEndTime());
+        size += ObjectSizes.of(event.getCreateTime());
+        size += ObjectSizes.of(event.getUpdateTime());
+        size += ObjectSizes.ofBoxed(event.getHeatScore());
+        size += ObjectSizes.ofBoxed(event.getVersion());
+        size += ObjectSizes.ofBoxed(event.getDeleted());
+        return size;
+    }
 }
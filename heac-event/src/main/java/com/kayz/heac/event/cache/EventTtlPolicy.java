@@ -0,0 +1,24 @@
+package com.kayz.heac.event.cache;
+
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.entity.Event;
+import org.springframework.stereotype.Component;
+
+/**
+ * 事件缓存过期策略：按 {@link com.kayz.heac.event.enums.EventStatus} 分档
+ * <p>
+ * ENDED / CLOSED 的事件基本不再变化，可以缓存很久；
+ * WARMUP / PUBLISHED 的事件状态随时可能流转，TTL 要短
+ */
+@Component
+public class EventTtlPolicy extends DefaultTtlPolicy<Event> {
+
+    public EventTtlPolicy(MultiLevelCacheProperties properties) {
+        super(properties);
+    }
+
+    @Override
+    protected String tierOf(Event event) {
+        return event.getStatus() == null ? null : event.getStatus().getCode();
+    }
+}
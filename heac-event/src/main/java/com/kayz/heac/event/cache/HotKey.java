@@ -0,0 +1,16 @@
+package com.kayz.heac.event.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 热点 Key 及其在当前滑动窗口内的估算访问次数 (本节点)
+ * pinned 表示已经驻留在本地热点缓存中 (下一次刷新后才会驻留新发现的热点)
+ */
+@Data
+@AllArgsConstructor
+public class HotKey {
+    private String id;
+    private long estimate;
+    private boolean pinned;
+}
@@ -0,0 +1,158 @@
+package com.kayz.heac.event.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 热点 Key 探测：Count-Min Sketch + 滑动窗口
+ * <p>
+ * 每个窗口一个 Sketch (depth 行 x width 列计数器)，估算值 = 当前窗口计数 + 上一窗口计数 x 未过去的比例，
+ * 近似一个长度为 window 的滑动窗口。Sketch 只会高估不会低估，所以不会漏掉真正的热点。
+ * <p>
+ * 估算值超过阈值的 Key 记入候选集 (有上限)，候选集的大小与总访问量无关，内存固定
+ */
+class HotKeyDetector {
+
+    private final int depth;
+    private final int mask;
+    private final long windowNanos;
+    private final long threshold;
+    private final int maxCandidates;
+
+    private final ConcurrentMap<String, Long> candidates = new ConcurrentHashMap<>();
+
+    private volatile Window current;
+    private volatile Window previous;
+
+    /**
+     * @param width      每行计数器个数 (向上取 2 的幂)
+     * @param depth      行数 (独立哈希个数)
+     * @param window     滑动窗口长度
+     * @param threshold  窗口内访问次数达到该值即视为热点
+     * @param maxHotKeys 热点 Key 数量上限
+     */
+    HotKeyDetector(int width, int depth, Duration window, long threshold, int maxHotKeys) {
+        int tableWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.mask = tableWidth - 1;
+        this.windowNanos = window.toNanos();
+        this.threshold = threshold;
+        // 候选集比结果集大一些，给即将变热的 Key 留出空间
+        this.maxCandidates = maxHotKeys * 4;
+        long now = System.nanoTime();
+        this.current = new Window(now, depth, tableWidth);
+        this.previous = new Window(now - windowNanos, depth, tableWidth);
+    }
+
+    /**
+     * 记录一次访问 (读路径上调用，只有几次数组自增，无锁)
+     */
+    void record(String id) {
+        long now = System.nanoTime();
+        Window window = currentWindow(now);
+        int hash = spread(id.hashCode());
+        int count = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            count = Math.min(count, window.counters.incrementAndGet(index(hash, i)));
+        }
+        if (count < threshold) {
+            // 只看当前窗口还不够，再加上上一窗口的加权计数
+            if (count + weightedPrevious(hash, now) < threshold) {
+                return;
+            }
+        }
+        if (candidates.size() < maxCandidates || candidates.containsKey(id)) {
+            candidates.put(id, (long) count);
+        }
+    }
+
+    /**
+     * 当前热点 Key，按估算访问次数倒序；同时清理已经降温的候选
+     */
+    List<HotKey> hotKeys(int limit) {
+        long now = System.nanoTime();
+        currentWindow(now);
+        List<HotKey> hot = new ArrayList<>();
+        candidates.keySet().removeIf(id -> {
+            long estimate = estimate(id, now);
+            if (estimate < threshold) {
+                return true;
+            }
+            hot.add(new HotKey(id, estimate, false));
+            return false;
+        });
+        hot.sort(Comparator.comparingLong(HotKey::getEstimate).reversed());
+        return hot.size() > limit ? new ArrayList<>(hot.subList(0, limit)) : hot;
+    }
+
+    private long estimate(String id, long now) {
+        int hash = spread(id.hashCode());
+        int count = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            count = Math.min(count, current.counters.get(index(hash, i)));
+        }
+        return count + weightedPrevious(hash, now);
+    }
+
+    private long weightedPrevious(int hash, long now) {
+        Window prev = previous;
+        int count = Integer.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            count = Math.min(count, prev.counters.get(index(hash, i)));
+        }
+        double elapsed = (double) (now - current.startNanos) / windowNanos;
+        return (long) (count * Math.max(0.0, 1.0 - elapsed));
+    }
+
+    /**
+     * 窗口到期时滚动 (读路径上顺带完成，不需要额外线程)
+     */
+    private Window currentWindow(long now) {
+        Window window = current;
+        if (now - window.startNanos < windowNanos) {
+            return window;
+        }
+        synchronized (this) {
+            window = current;
+            long elapsed = now - window.startNanos;
+            if (elapsed >= windowNanos) {
+                int width = mask + 1;
+                // 超过两个窗口没有访问，上一窗口的数据也已作废
+                previous = elapsed >= 2 * windowNanos ? new Window(now - windowNanos, depth, width) : window;
+                window = new Window(now, depth, width);
+                current = window;
+            }
+            return window;
+        }
+    }
+
+    private int index(int hash, int row) {
+        // 双重哈希：h1 + row * h2，h2 保证为奇数
+        int h2 = (hash >>> 16) | 1;
+        return row * (mask + 1) + ((hash + row * h2) & mask);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static final class Window {
+        private final long startNanos;
+        private final AtomicIntegerArray counters;
+
+        private Window(long startNanos, int depth, int width) {
+            this.startNanos = startNanos;
+            this.counters = new AtomicIntegerArray(depth * width);
+        }
+    }
+}
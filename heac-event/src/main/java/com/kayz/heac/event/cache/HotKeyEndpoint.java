@@ -0,0 +1,42 @@
+package com.kayz.heac.event.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点 Key 端点：GET /actuator/heachotkeys 查看全部缓存，GET /actuator/heachotkeys/{cacheName} 查看单个
+ * <p>
+ * 统计的是本节点的访问，不同节点的热点集合可能不同
+ */
+@Component
+@Endpoint(id = "heachotkeys")
+public class HotKeyEndpoint {
+
+    private final List<AbstractCacheManager<?>> cacheManagers;
+
+    public HotKeyEndpoint(List<AbstractCacheManager<?>> cacheManagers) {
+        this.cacheManagers = cacheManagers;
+    }
+
+    @ReadOperation
+    public Map<String, List<HotKey>> hotKeys() {
+        Map<String, List<HotKey>> result = new LinkedHashMap<>();
+        cacheManagers.forEach(manager -> result.put(manager.getCacheName(), manager.getHotKeys()));
+        return result;
+    }
+
+    @ReadOperation
+    public List<HotKey> hotKeysOf(@Selector String cacheName) {
+        return cacheManagers.stream()
+                .filter(manager -> manager.getCacheName().equals(cacheName))
+                .findFirst()
+                .map(AbstractCacheManager::getHotKeys)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,191 @@
+package com.kayz.heac.event.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * 一级缓存工厂：每个缓存管理器一个独立命名的 Caffeine，按估算字节数限制容量
+ * <p>
+ * 预算分配 (heac.cache.local.*)：
+ * <ul>
+ *     <li>配置了 max-bytes 的缓存使用固定预算</li>
+ *     <li>其余缓存按 weight 比例分摊 max-bytes 总预算剩余的部分</li>
+ * </ul>
+ * 缓存管理器附带的空值缓存 ({@code <名称>-null}) 和热点驻留缓存 ({@code <名称>-hot}) 也从这里创建，
+ * 未单独配置时使用各自的固定默认预算，同样计入总预算。
+ * 每创建一个缓存都会重新分配并调整已有缓存的上限，所有一级缓存加起来不超过总预算
+ */
+@Slf4j
+public class LocalCacheFactory {
+
+    private final MultiLevelCacheProperties.Local config;
+    private final Map<String, Cache<String, ?>> caches = new LinkedHashMap<>();
+    /**
+     * 未在配置中出现时使用的固定预算 (空值缓存、热点缓存)
+     */
+    private final Map<String, DataSize> defaultMaxBytes = new HashMap<>();
+
+    public LocalCacheFactory(MultiLevelCacheProperties.Local config) {
+        this.config = config;
+    }
+
+    /**
+     * 创建命名的一级缓存
+     *
+     * @param name          缓存名 (对应 heac.cache.local.caches 下的配置)
+     * @param type          实体类型
+     * @param sizeEstimator 单个实体的堆内存估算 (字节)
+     */
+    public synchronized <T> Cache<String, Object> create(String name, Class<T> type, ToIntFunction<T> sizeEstimator) {
+        checkAbsent(name);
+        long defaultTtlNanos = config.getExpireAfterWrite().toNanos();
+        Cache<String, Object> cache = Caffeine.newBuilder()
+                // 按条目过期：缓存管理器写入时通过 policy().expireVariably() 指定每条数据的 TTL，
+                // 未指定时使用默认的写入后过期时间
+                // 各节点通过 Redis 广播互相失效，这里的 TTL 只是兜底，可以放宽到分钟级
+                .expireAfter(new Expiry<String, Object>() {
+                    @Override
+                    public long expireAfterCreate(String key, Object value, long currentTime) {
+                        return defaultTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                        return defaultTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                        // 读取不影响过期时间
+                        return currentDuration;
+                    }
+                })
+                // 初始的缓存空间大小
+                .initialCapacity(config.getInitialCapacity())
+                // 按估算字节数淘汰，上限在 rebalance() 中按预算设置
+                .maximumWeight(config.getMaxBytes().toBytes())
+                .weigher((String key, Object value) -> weigh(key, value, type, sizeEstimator))
+                // 记录命中/驱逐统计，由缓存管理器注册到 Micrometer
+                .recordStats()
+                .build();
+        register(name, cache, null);
+        return cache;
+    }
+
+    /**
+     * 创建缓存管理器的本地空值缓存，名称为 {@code <owner>-null}
+     *
+     * @param owner           所属缓存名
+     * @param ttl             空值存活时间
+     * @param defaultMaxBytes 未单独配置时的固定预算
+     */
+    public synchronized Cache<String, Boolean> createNullValueCache(String owner, Duration ttl, DataSize defaultMaxBytes) {
+        String name = owner + "-null";
+        checkAbsent(name);
+        Cache<String, Boolean> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(defaultMaxBytes.toBytes())
+                // Boolean.TRUE 是共享常量，只计 Key 和节点开销
+                .weigher((String key, Boolean value) -> ObjectSizes.CACHE_ENTRY + ObjectSizes.of(key))
+                .recordStats()
+                .build();
+        register(name, cache, defaultMaxBytes);
+        return cache;
+    }
+
+    /**
+     * 创建缓存管理器的热点驻留缓存，名称为 {@code <owner>-hot}
+     *
+     * @param owner           所属缓存名
+     * @param type            实体类型
+     * @param sizeEstimator   单个实体的堆内存估算 (字节)
+     * @param ttl             驻留时间
+     * @param defaultMaxBytes 未单独配置时的固定预算
+     */
+    public synchronized <T> Cache<String, Object> createHotCache(String owner, Class<T> type, ToIntFunction<T> sizeEstimator,
+                                                                 Duration ttl, DataSize defaultMaxBytes) {
+        String name = owner + "-hot";
+        checkAbsent(name);
+        Cache<String, Object> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(defaultMaxBytes.toBytes())
+                .weigher((String key, Object value) -> weigh(key, value, type, sizeEstimator))
+                .recordStats()
+                .build();
+        register(name, cache, defaultMaxBytes);
+        return cache;
+    }
+
+    private void checkAbsent(String name) {
+        if (caches.containsKey(name)) {
+            throw new IllegalStateException("Local cache already created: " + name);
+        }
+    }
+
+    private void register(String name, Cache<String, ?> cache, DataSize fallbackMaxBytes) {
+        caches.put(name, cache);
+        if (fallbackMaxBytes != null) {
+            defaultMaxBytes.put(name, fallbackMaxBytes);
+        }
+        rebalance();
+    }
+
+    private static <T> int weigh(String key, Object value, Class<T> type, ToIntFunction<T> sizeEstimator) {
+        int size = ObjectSizes.CACHE_ENTRY + ObjectSizes.of(key);
+        Object entity = value;
+        if (value instanceof CacheEnvelope envelope) {
+            size += ObjectSizes.align(ObjectSizes.OBJECT_HEADER + ObjectSizes.REFERENCE + 8);
+            entity = envelope.getData();
+        }
+        if (type.isInstance(entity)) {
+            size += sizeEstimator.applyAsInt(type.cast(entity));
+        }
+        return size;
+    }
+
+    /**
+     * 按配置重新分配各缓存的字节上限
+     */
+    private void rebalance() {
+        long fixedBytes = 0;
+        int totalWeight = 0;
+        for (String name : caches.keySet()) {
+            MultiLevelCacheProperties.LocalCacheSpec spec = specOf(name);
+            if (spec.getMaxBytes() != null) {
+                fixedBytes += spec.getMaxBytes().toBytes();
+            } else {
+                totalWeight += spec.getWeight();
+            }
+        }
+        long sharedBytes = Math.max(config.getMaxBytes().toBytes() - fixedBytes, 0);
+
+        for (Map.Entry<String, Cache<String, ?>> entry : caches.entrySet()) {
+            MultiLevelCacheProperties.LocalCacheSpec spec = specOf(entry.getKey());
+            long maximum = spec.getMaxBytes() != null
+                    ? spec.getMaxBytes().toBytes()
+                    : sharedBytes * spec.getWeight() / Math.max(totalWeight, 1);
+            entry.getValue().policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximum));
+            log.info("Local cache budget: {} = {} KB", entry.getKey(), maximum / 1024);
+        }
+    }
+
+    private MultiLevelCacheProperties.LocalCacheSpec specOf(String name) {
+        MultiLevelCacheProperties.LocalCacheSpec spec = config.getCaches().get(name);
+        if (spec != null) {
+            return spec;
+        }
+        spec = new MultiLevelCacheProperties.LocalCacheSpec();
+        spec.setMaxBytes(defaultMaxBytes.get(name));
+        return spec;
+    }
+}
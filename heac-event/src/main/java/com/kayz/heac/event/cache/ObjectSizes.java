@@ -0,0 +1,65 @@
+package com.kayz.heac.event.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * 堆内存占用估算 (64 位 JVM，开启压缩指针)，用于 Caffeine 按字节限制容量
+ * <p>
+ * 只求量级准确：估算偏差会同比例影响所有条目，不影响各缓存之间的预算分配
+ */
+public final class ObjectSizes {
+
+    /**
+     * 对象头 (Mark Word + 压缩类指针)
+     */
+    public static final int OBJECT_HEADER = 12;
+    public static final int REFERENCE = 4;
+    /**
+     * Long / Integer 等包装类型
+     */
+    public static final int BOXED = 16;
+    /**
+     * LocalDateTime + LocalDate + LocalTime 三个对象
+     */
+    public static final int LOCAL_DATE_TIME = 72;
+    /**
+     * Caffeine 每个条目的节点开销 (带过期时间、权重的 Node + 哈希表槽位)
+     */
+    public static final int CACHE_ENTRY = 96;
+
+    private ObjectSizes() {
+        throw new UnsupportedOperationException("ObjectSizes is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 对象大小按 8 字节对齐
+     */
+    public static int align(int size) {
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * String 对象 + 内部 byte[] (紧凑字符串：纯 Latin-1 每字符 1 字节，否则 2 字节)
+     */
+    public static int of(String s) {
+        if (s == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + align(16 + s.length() * bytesPerChar);
+    }
+
+    public static int of(LocalDateTime time) {
+        return time == null ? 0 : LOCAL_DATE_TIME;
+    }
+
+    public static int ofBoxed(Object value) {
+        return value == null ? 0 : BOXED;
+    }
+}
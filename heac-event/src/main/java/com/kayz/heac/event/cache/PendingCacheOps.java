@@ -0,0 +1,37 @@
+package com.kayz.heac.event.cache;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一个事务内登记的缓存操作，提交后合并执行；同一个ID以最后一次登记的操作为准
+ */
+@Getter
+class PendingCacheOps<T> {
+
+    private final Set<String> invalidateIds = new LinkedHashSet<>();
+    private final Set<String> absentIds = new LinkedHashSet<>();
+    private final Map<String, T> writes = new LinkedHashMap<>();
+
+    void invalidate(String id) {
+        absentIds.remove(id);
+        writes.remove(id);
+        invalidateIds.add(id);
+    }
+
+    void markAbsent(String id) {
+        invalidateIds.remove(id);
+        writes.remove(id);
+        absentIds.add(id);
+    }
+
+    void write(String id, T entity) {
+        invalidateIds.remove(id);
+        absentIds.remove(id);
+        writes.put(id, entity);
+    }
+}
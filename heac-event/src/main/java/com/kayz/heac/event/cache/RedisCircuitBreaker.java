@@ -0,0 +1,198 @@
+package com.kayz.heac.event.cache;
+
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.Tracer;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.EventObserverRegistry;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Redis 熔断器 (基于 Sentinel 熔断降级规则，每个缓存一个资源)
+ * <ul>
+ *     <li>慢调用比例或异常比例超过阈值时熔断，熔断期间不再访问 Redis，缓存退化为只用一级缓存</li>
+ *     <li>熔断时长结束后进入半开状态，放行一个探测请求，成功则恢复</li>
+ * </ul>
+ * 读路径、回填路径和失效路径 (DEL / 空值占位) 都经过熔断器；失效时 Redis 这一步失败或被熔断只会跳过该步，
+ * 本地淘汰与广播照常执行，Redis 中残留的旧值由延迟双删再删一次，最终由 TTL 兜底
+ */
+@Slf4j
+class RedisCircuitBreaker {
+
+    private static final Object RULE_LOCK = new Object();
+
+    private final String resource;
+    private final boolean enabled;
+    private final Counter rejected;
+    private final Counter errors;
+
+    private volatile CircuitBreaker.State state = CircuitBreaker.State.CLOSED;
+
+    RedisCircuitBreaker(String cacheName, MultiLevelCacheProperties.RedisBreaker config, MeterRegistry registry) {
+        this.resource = "heac-cache-redis:" + cacheName;
+        this.enabled = config.isEnabled();
+        this.rejected = Counter.builder("heac.cache.redis.rejected")
+                .description("Redis calls short-circuited by the open breaker")
+                .tag("cache", cacheName)
+                .register(registry);
+        this.errors = Counter.builder("heac.cache.redis.errors")
+                .description("Redis calls that failed and fell back to L1 / DB")
+                .tag("cache", cacheName)
+                .register(registry);
+        Gauge.builder("heac.cache.redis.breaker.state", this, RedisCircuitBreaker::stateValue)
+                .description("Redis breaker state (0 = closed, 1 = open, 2 = half-open)")
+                .tag("cache", cacheName)
+                .register(registry);
+        if (enabled) {
+            registerRules(config);
+            EventObserverRegistry.getInstance().addStateChangeObserver(resource, (prevState, newState, rule, snapshotValue) -> {
+                if (resource.equals(rule.getResource())) {
+                    state = newState;
+                    log.warn("Redis breaker {} -> {}: {} (snapshot={})", prevState, newState, resource, snapshotValue);
+                }
+            });
+        }
+    }
+
+    /**
+     * 熔断打开时直接返回降级值，不访问 Redis
+     */
+    boolean isOpen() {
+        return state == CircuitBreaker.State.OPEN;
+    }
+
+    CircuitBreaker.State getState() {
+        return state;
+    }
+
+    long getRejected() {
+        return (long) rejected.count();
+    }
+
+    long getErrors() {
+        return (long) errors.count();
+    }
+
+    private double stateValue() {
+        return switch (state) {
+            case CLOSED -> 0;
+            case OPEN -> 1;
+            case HALF_OPEN -> 2;
+        };
+    }
+
+    /**
+     * 受保护地执行一次 Redis 调用：熔断或异常时返回降级值 (异常计入熔断统计)
+     */
+    <R> R call(Callable<R> redisCall, R fallback) {
+        if (!enabled) {
+            try {
+                return redisCall.call();
+            } catch (Exception e) {
+                errors.increment();
+                log.warn("Redis call failed: {}", resource, e);
+                return fallback;
+            }
+        }
+        Entry entry = null;
+        try {
+            entry = SphU.entry(resource);
+            return redisCall.call();
+        } catch (BlockException e) {
+            rejected.increment();
+            return fallback;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Tracer.traceEntry(e, entry);
+            errors.increment();
+            log.warn("Redis call failed, degrade to L1: {}", resource, e);
+            return fallback;
+        } finally {
+            if (entry != null) {
+                entry.exit();
+            }
+        }
+    }
+
+    /**
+     * 异步版本：熔断时立即返回降级值，异常在回调中计入熔断统计
+     */
+    <R> CompletableFuture<R> callAsync(Supplier<CompletableFuture<R>> redisCall, R fallback) {
+        if (!enabled) {
+            return redisCall.get().exceptionally(e -> {
+                errors.increment();
+                log.warn("Redis async call failed: {}", resource, e);
+                return fallback;
+            });
+        }
+        AsyncEntry entry;
+        try {
+            entry = SphU.asyncEntry(resource);
+        } catch (BlockException e) {
+            rejected.increment();
+            return CompletableFuture.completedFuture(fallback);
+        }
+        CompletableFuture<R> future;
+        try {
+            future = redisCall.get();
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((result, e) -> {
+            try {
+                if (e == null) {
+                    return result;
+                }
+                Tracer.traceEntry(e, entry);
+                errors.increment();
+                log.warn("Redis async call failed, degrade to L1: {}", resource, e);
+                return fallback;
+            } finally {
+                entry.exit();
+            }
+        });
+    }
+
+    /**
+     * 追加本资源的熔断规则 (DegradeRuleManager 是全局的，loadRules 会整体替换，所以先合并已有规则)
+     */
+    private void registerRules(MultiLevelCacheProperties.RedisBreaker config) {
+        DegradeRule slowCall = new DegradeRule(resource)
+                .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+                .setCount(config.getSlowCallThreshold().toMillis())
+                .setSlowRatioThreshold(config.getSlowCallRatio())
+                .setMinRequestAmount(config.getMinRequests())
+                .setStatIntervalMs((int) config.getStatInterval().toMillis())
+                .setTimeWindow((int) config.getOpenDuration().toSeconds());
+        DegradeRule errorRatio = new DegradeRule(resource)
+                .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+                .setCount(config.getErrorRatio())
+                .setMinRequestAmount(config.getMinRequests())
+                .setStatIntervalMs((int) config.getStatInterval().toMillis())
+                .setTimeWindow((int) config.getOpenDuration().toSeconds());
+        synchronized (RULE_LOCK) {
+            List<DegradeRule> rules = new ArrayList<>(DegradeRuleManager.getRules());
+            rules.removeIf(rule -> resource.equals(rule.getResource()));
+            rules.add(slowCall);
+            rules.add(errorRatio);
+            DegradeRuleManager.loadRules(rules);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.kayz.heac.event.cache;
+
+import lombok.Data;
+
+/**
+ * 启动预热进度 (heaccache 端点中展示)
+ */
+@Data
+public class WarmupProgress {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, BUDGET_EXHAUSTED, FAILED
+    }
+
+    private volatile State state = State.PENDING;
+    // 已写入一级缓存的条数
+    private volatile long warmed;
+    // 其中直接从 Redis 读到的条数 (其余为批量回源)
+    private volatile long fromRedis;
+    private volatile long elapsedMs;
+}
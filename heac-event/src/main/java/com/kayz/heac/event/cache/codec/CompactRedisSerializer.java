@@ -0,0 +1,130 @@
+package com.kayz.heac.event.cache.codec;
+
+import com.kayz.heac.event.cache.CacheEnvelope;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.entity.Event;
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Redis Value 序列化器：Event (及包裹 Event 的 CacheEnvelope) 走紧凑二进制，其余类型交给 Jackson
+ * <p>
+ * 二进制格式：MAGIC(1) | VERSION(1) | FLAGS(1) | [原始长度(4)，仅压缩时] | [logicalExpireAt(8)，仅信封] | payload
+ * <ul>
+ *     <li>MAGIC 取 0xEC，合法 JSON 不可能以该字节开头，因此旧的 JSON 数据可以直接按首字节分流，无需迁移</li>
+ *     <li>VERSION 不认识时按未命中处理 (返回 null 后回源)，滚动发布期间新旧节点混跑也不会抛错</li>
+ *     <li>payload 超过阈值时用 LZ4 压缩，压缩后反而更大则保持原样</li>
+ * </ul>
+ * 滚动发布时应先全量上线 (binary-enabled=false，只读不写)，再打开写开关
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xEC;
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAG_LZ4 = 1;
+    private static final int FLAG_ENVELOPE = 1 << 1;
+
+    private static final int HEADER_SIZE = 3;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> fallback;
+    private final MultiLevelCacheProperties.Codec config;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, MultiLevelCacheProperties.Codec config) {
+        this.fallback = fallback;
+        this.config = config;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (!config.isBinaryEnabled()) {
+            return fallback.serialize(value);
+        }
+        if (value instanceof Event event) {
+            return encode(event, 0, 0L);
+        }
+        if (value instanceof CacheEnvelope envelope && envelope.getData() instanceof Event event) {
+            return encode(event, FLAG_ENVELOPE, envelope.getLogicalExpireAt());
+        }
+        return fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] != FORMAT_VERSION) {
+            log.warn("无法识别的缓存编码版本: {}，按未命中处理", bytes.length > 1 ? bytes[1] : -1);
+            return null;
+        }
+        try {
+            return decode(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializationException("二进制缓存解码失败", e);
+        }
+    }
+
+    private byte[] encode(Event event, int flags, long logicalExpireAt) {
+        EventBinaryCodec.Writer body = new EventBinaryCodec.Writer(256);
+        if ((flags & FLAG_ENVELOPE) != 0) {
+            body.writeLong(logicalExpireAt);
+        }
+        EventBinaryCodec.encode(event, body);
+
+        int rawLength = body.size();
+        if (rawLength >= config.getCompressThreshold()) {
+            byte[] compressed = new byte[compressor.maxCompressedLength(rawLength)];
+            int compressedLength = compressor.compress(body.buffer(), 0, rawLength, compressed, 0, compressed.length);
+            if (compressedLength + 4 < rawLength) {
+                EventBinaryCodec.Writer out = new EventBinaryCodec.Writer(HEADER_SIZE + 4 + compressedLength);
+                writeHeader(out, flags | FLAG_LZ4);
+                out.writeInt(rawLength);
+                out.writeBytes(compressed, 0, compressedLength);
+                return out.toByteArray();
+            }
+        }
+
+        EventBinaryCodec.Writer out = new EventBinaryCodec.Writer(HEADER_SIZE + rawLength);
+        writeHeader(out, flags);
+        out.writeBytes(body.buffer(), 0, rawLength);
+        return out.toByteArray();
+    }
+
+    private Object decode(byte[] bytes) {
+        int flags = bytes[2];
+        byte[] body = bytes;
+        int offset = HEADER_SIZE;
+        if ((flags & FLAG_LZ4) != 0) {
+            int rawLength = new EventBinaryCodec.Reader(bytes, HEADER_SIZE).readInt();
+            body = new byte[rawLength];
+            decompressor.decompress(bytes, HEADER_SIZE + 4, body, 0, rawLength);
+            offset = 0;
+        }
+
+        EventBinaryCodec.Reader in = new EventBinaryCodec.Reader(body, offset);
+        if ((flags & FLAG_ENVELOPE) != 0) {
+            long logicalExpireAt = in.readLong();
+            return CacheEnvelope.of(EventBinaryCodec.decode(in), logicalExpireAt);
+        }
+        return EventBinaryCodec.decode(in);
+    }
+
+    private static void writeHeader(EventBinaryCodec.Writer out, int flags) {
+        out.writeByte(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(flags);
+    }
+}
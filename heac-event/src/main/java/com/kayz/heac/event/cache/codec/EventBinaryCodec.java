@@ -0,0 +1,253 @@
+package com.kayz.heac.event.cache.codec;
+
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Event 的紧凑二进制编码 (Schema 固定，无字段名、无类名)
+ * <p>
+ * 布局：2 字节字段存在位图 + 按固定顺序排列的非空字段。
+ * 字符串为 varint 长度 + UTF-8；整数为 zigzag varint；时间为 UTC 秒 (varint) + 纳秒 (varint)。
+ * <p>
+ * 字段只能追加在末尾；删除或调整字段顺序时必须提升 {@link CompactRedisSerializer} 的格式版本号
+ */
+public final class EventBinaryCodec {
+
+    private static final int F_ID = 0;
+    private static final int F_TITLE = 1;
+    private static final int F_SUMMARY = 2;
+    private static final int F_COVER_IMG = 3;
+    private static final int F_STATUS = 4;
+    private static final int F_HEAT_SCORE = 5;
+    private static final int F_START_TIME = 6;
+    private static final int F_END_TIME = 7;
+    private static final int F_CREATED_BY = 8;
+    private static final int F_CREATE_TIME = 9;
+    private static final int F_UPDATE_TIME = 10;
+    private static final int F_VERSION = 11;
+    private static final int F_DELETED = 12;
+
+    private static final EventStatus[] STATUSES = EventStatus.values();
+
+    private EventBinaryCodec() {
+        throw new UnsupportedOperationException("EventBinaryCodec is a utility class and cannot be instantiated");
+    }
+
+    public static void encode(Event event, Writer out) {
+        int presence = 0;
+        presence |= bit(F_ID, event.getId());
+        presence |= bit(F_TITLE, event.getTitle());
+        presence |= bit(F_SUMMARY, event.getSummary());
+        presence |= bit(F_COVER_IMG, event.getCoverImg());
+        presence |= bit(F_STATUS, event.getStatus());
+        presence |= bit(F_HEAT_SCORE, event.getHeatScore());
+        presence |= bit(F_START_TIME, event.getStartTime());
+        presence |= bit(F_END_TIME, event.getEndTime());
+        presence |= bit(F_CREATED_BY, event.getCreatedBy());
+        presence |= bit(F_CREATE_TIME, event.getCreateTime());
+        presence |= bit(F_UPDATE_TIME, event.getUpdateTime());
+        presence |= bit(F_VERSION, event.getVersion());
+        presence |= bit(F_DELETED, event.getDeleted());
+        out.writeByte(presence >>> 8);
+        out.writeByte(presence);
+
+        if (event.getId() != null) out.writeString(event.getId());
+        if (event.getTitle() != null) out.writeString(event.getTitle());
+        if (event.getSummary() != null) out.writeString(event.getSummary());
+        if (event.getCoverImg() != null) out.writeString(event.getCoverImg());
+        // 枚举按 code 存储，枚举顺序调整不影响已有数据
+        if (event.getStatus() != null) out.writeString(event.getStatus().getCode());
+        if (event.getHeatScore() != null) out.writeVarLong(event.getHeatScore());
+        if (event.getStartTime() != null) out.writeDateTime(event.getStartTime());
+        if (event.getEndTime() != null) out.writeDateTime(event.getEndTime());
+        if (event.getCreatedBy() != null) out.writeString(event.getCreatedBy());
+        if (event.getCreateTime() != null) out.writeDateTime(event.getCreateTime());
+        if (event.getUpdateTime() != null) out.writeDateTime(event.getUpdateTime());
+        if (event.getVersion() != null) out.writeVarLong(event.getVersion());
+        if (event.getDeleted() != null) out.writeVarLong(event.getDeleted());
+    }
+
+    public static Event decode(Reader in) {
+        int presence = (in.readByte() << 8) | in.readByte();
+        Event event = Event.empty();
+        if (has(presence, F_ID)) event.setId(in.readString());
+        if (has(presence, F_TITLE)) event.setTitle(in.readString());
+        if (has(presence, F_SUMMARY)) event.setSummary(in.readString());
+        if (has(presence, F_COVER_IMG)) event.setCoverImg(in.readString());
+        if (has(presence, F_STATUS)) event.setStatus(statusOf(in.readString()));
+        if (has(presence, F_HEAT_SCORE)) event.setHeatScore(in.readVarLong());
+        if (has(presence, F_START_TIME)) event.setStartTime(in.readDateTime());
+        if (has(presence, F_END_TIME)) event.setEndTime(in.readDateTime());
+        if (has(presence, F_CREATED_BY)) event.setCreatedBy(in.readString());
+        if (has(presence, F_CREATE_TIME)) event.setCreateTime(in.readDateTime());
+        if (has(presence, F_UPDATE_TIME)) event.setUpdateTime(in.readDateTime());
+        if (has(presence, F_VERSION)) event.setVersion((int) in.readVarLong());
+        if (has(presence, F_DELETED)) event.setDeleted((int) in.readVarLong());
+        return event;
+    }
+
+    private static int bit(int field, Object value) {
+        return value == null ? 0 : 1 << field;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+
+    private static EventStatus statusOf(String code) {
+        for (EventStatus status : STATUSES) {
+            if (status.getCode().equals(code)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event status: " + code);
+    }
+
+    /**
+     * 可扩容的字节写入器
+     */
+    public static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        public Writer(int initialCapacity) {
+            this.buf = new byte[initialCapacity];
+        }
+
+        public void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        public void writeLong(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (v >>> shift);
+            }
+        }
+
+        public void writeInt(int v) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (v >>> shift);
+            }
+        }
+
+        public void writeBytes(byte[] bytes, int off, int len) {
+            ensure(len);
+            System.arraycopy(bytes, off, buf, pos, len);
+            pos += len;
+        }
+
+        /**
+         * zigzag + varint，小的正负数都只占 1~2 个字节
+         */
+        public void writeVarLong(long v) {
+            long zigzag = (v << 1) ^ (v >> 63);
+            ensure(10);
+            while ((zigzag & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buf[pos++] = (byte) zigzag;
+        }
+
+        public void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        public void writeDateTime(LocalDateTime time) {
+            writeVarLong(time.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(time.getNano());
+        }
+
+        public int size() {
+            return pos;
+        }
+
+        public byte[] buffer() {
+            return buf;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + extra));
+            }
+        }
+    }
+
+    /**
+     * 字节读取器
+     */
+    public static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        public Reader(byte[] buf, int offset) {
+            this.buf = buf;
+            this.pos = offset;
+        }
+
+        public int readByte() {
+            return buf[pos++] & 0xFF;
+        }
+
+        public long readLong() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+
+        public int readInt() {
+            int v = 0;
+            for (int i = 0; i < 4; i++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+
+        public long readVarLong() {
+            long zigzag = 0;
+            int shift = 0;
+            while (true) {
+                byte b = buf[pos++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                shift += 7;
+            }
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        public String readString() {
+            int len = (int) readVarLong();
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        public LocalDateTime readDateTime() {
+            long epochSecond = readVarLong();
+            int nano = (int) readVarLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+
+        public int position() {
+            return pos;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.kayz.heac.event.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * 缓存异步回源专用线程池 (有界)
+     */
+    @Bean("cacheLoadExecutor")
+    public Executor cacheLoadExecutor(MultiLevelCacheProperties properties) {
+        MultiLevelCacheProperties.Loader loader = properties.getLoader();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(loader.getCorePoolSize());
+        executor.setMaxPoolSize(loader.getMaxPoolSize());
+        executor.setQueueCapacity(loader.getQueueCapacity());
+        executor.setThreadNamePrefix("Cache-Loader-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 缓存延迟双删的调度器 (任务只是几个 Redis 命令，单线程足够)
+     */
+    @Bean("cacheInvalidationScheduler")
+    public TaskScheduler cacheInvalidationScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("Cache-Invalidation-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    /**
+     * 状态流转的执行线程 (时间轮工作线程只负责投递到期任务，批量 UPDATE 在这里执行)
+     */
+    @Bean("transitionExecutor")
+    public Executor transitionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        // 调度器同一时间只提交一个批量任务，队列只需容纳收尾时补交的那一个；满了会拒绝，任务留在调度器队列中
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("Event-Transition-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 发布通知重试的调度器 (只负责到点重新发起异步发送)
+     */
+    @Bean("notifyRetryScheduler")
+    public TaskScheduler notifyRetryScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("Notify-Retry-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
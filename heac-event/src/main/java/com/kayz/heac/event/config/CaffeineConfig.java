@@ -1,23 +1,16 @@
 package com.kayz.heac.event.config;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kayz.heac.event.cache.LocalCacheFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
-
 @Configuration
 public class CaffeineConfig {
+    /**
+     * 一级缓存工厂：每个缓存管理器创建自己的 Caffeine，共享 heac.cache.local.max-bytes 预算
+     */
     @Bean
-    public Cache<String, Object> caffeineCache() {
-        return Caffeine.newBuilder()
-                // 设置最后一次写入或访问后经过固定时间过期
-                .expireAfterWrite(60, TimeUnit.SECONDS)
-                // 初始的缓存空间大小
-                .initialCapacity(100)
-                // 缓存的最大条数
-                .maximumSize(1000)
-                .build();
+    public LocalCacheFactory localCacheFactory(MultiLevelCacheProperties properties) {
+        return new LocalCacheFactory(properties.getLocal());
     }
 }
@@ -0,0 +1,45 @@
+package com.kayz.heac.event.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 热度采集配置 (heac.heat.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "heac.heat")
+public class HeatProperties {
+
+    /**
+     * 内存累加的增量多久落库一次，也是进程崩溃时最多丢失的热度时间窗口
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 单条 UPDATE ... FROM (VALUES ...) / 单次 Redis 脚本携带的事件数
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 两次落库之间最多累计的事件数，超出后新事件的增量直接丢弃 (防止异常ID撑爆内存)
+     */
+    private int maxPendingEvents = 100_000;
+
+    /**
+     * 热榜的时间衰减
+     */
+    private Decay decay = new Decay();
+
+    @Data
+    public static class Decay {
+        // 半衰期：一次互动对排名的贡献每过一个半衰期减半
+        private Duration halfLife = Duration.ofHours(6);
+        // 参考时间点，榜单分数 = ln(Σ 权重 * e^(λ * (互动时间 - epoch)))；上线后不能再改，否则新旧分数不可比
+        private Instant epoch = Instant.parse("2025-01-01T00:00:00Z");
+    }
+}
@@ -0,0 +1,228 @@
+package com.kayz.heac.event.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 多级缓存配置 (heac.cache.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "heac.cache")
+public class MultiLevelCacheProperties {
+
+    /**
+     * 数据更新提交后直接写入新值 (版本保护)，关闭时退化为删除缓存
+     */
+    private boolean writeThrough = true;
+
+    /**
+     * 一级缓存 (Caffeine)
+     */
+    private Local local = new Local();
+
+    /**
+     * 二级缓存 TTL 及分档覆盖
+     */
+    private Ttl ttl = new Ttl();
+
+    /**
+     * 空值缓存 (防缓存穿透)
+     */
+    private NullValue nullValue = new NullValue();
+
+    /**
+     * 布隆过滤器 (拦截一定不存在的ID)
+     */
+    private BloomFilter bloomFilter = new BloomFilter();
+
+    /**
+     * 逻辑过期 / 后台刷新 (Stale-While-Revalidate)
+     */
+    private RefreshAhead refreshAhead = new RefreshAhead();
+
+    /**
+     * 异步回源线程池 (getAsync 的 DB 查询在这里执行，不占用请求线程)
+     */
+    private Loader loader = new Loader();
+
+    /**
+     * Redis Value 编码 (Event 紧凑二进制 + LZ4)
+     */
+    private Codec codec = new Codec();
+
+    /**
+     * 热点 Key 探测与本地驻留
+     */
+    private HotKey hotKey = new HotKey();
+
+    /**
+     * 启动预热 (就绪前批量填充一级缓存)
+     */
+    private Warmup warmup = new Warmup();
+
+    /**
+     * 缓存失效 (事务提交后批量执行 + 延迟双删)
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * Redis 熔断 (故障时降级为 一级缓存 + 直接回源)
+     */
+    private RedisBreaker redisBreaker = new RedisBreaker();
+
+    /**
+     * 回源舱壁 (限制同时查库的线程数，保护数据库)
+     */
+    private DbBulkhead dbBulkhead = new DbBulkhead();
+
+    @Data
+    public static class Local {
+        // 默认的写入后过期时间 (过期策略未单独指定时使用)
+        // 节点之间通过 Redis 广播失效，TTL 只是广播丢失时的兜底
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        // 初始的缓存空间大小
+        private int initialCapacity = 100;
+        // 全部一级缓存共享的堆内存预算 (按估算字节数，不是条数)
+        private DataSize maxBytes = DataSize.ofMegabytes(64);
+        // 各缓存的预算配置，Key 为缓存名 (未配置的缓存 weight = 1)
+        private Map<String, LocalCacheSpec> caches = new HashMap<>();
+    }
+
+    @Data
+    public static class LocalCacheSpec {
+        // 分摊共享预算的权重
+        private int weight = 1;
+        // 固定预算，配置后不参与按权重分摊
+        private DataSize maxBytes;
+    }
+
+    @Data
+    public static class Ttl {
+        // 默认 Redis TTL (一级缓存默认 TTL 见 local.expire-after-write)
+        private Duration redis = Duration.ofMinutes(10);
+        // 随机抖动比例，实际 TTL 落在 [base, base * (1 + ratio)]，避免同一批数据同时过期
+        private double jitterRatio = 0.1;
+        // 分档覆盖，Key 由各实体的过期策略决定 (例如事件按状态分档)
+        private Map<String, TtlSpec> overrides = new HashMap<>();
+    }
+
+    @Data
+    public static class TtlSpec {
+        private Duration redis;
+        private Duration local;
+    }
+
+    @Data
+    public static class NullValue {
+        private boolean enabled = true;
+        // 空值的存活时间，Caffeine 和 Redis 共用，不宜过长，避免新数据长时间不可见
+        private Duration ttl = Duration.ofSeconds(60);
+        // 本地空值缓存的固定预算 (按估算字节数，计入 local.max-bytes 总预算)，可用 local.caches.<缓存名>-null 覆盖
+        private DataSize localMaxBytes = DataSize.ofMegabytes(2);
+    }
+
+    @Data
+    public static class BloomFilter {
+        private boolean enabled = false;
+        // 预计元素数量，超出后误判率会上升 (只会放过更多请求，不会误拦)
+        private long expectedInsertions = 1_000_000;
+        // 期望误判率
+        private double falseProbability = 0.01;
+        // 全量扫描构建的总时限，也是构建锁的租期 (持锁节点卡死时锁到期自动释放)
+        private Duration buildTimeout = Duration.ofMinutes(5);
+        // 每次抢构建锁的等待时间
+        private Duration lockWait = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class RefreshAhead {
+        private boolean enabled = false;
+        // 逻辑过期时间，过期后读请求仍返回旧值并触发后台刷新
+        // 应小于 Redis 物理 TTL，两者之差就是热点数据可以"先返回旧值"的窗口
+        private Duration softTtl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Loader {
+        private int corePoolSize = 8;
+        private int maxPoolSize = 16;
+        // 有界队列，满了直接拒绝，避免请求在回源线程池里无限堆积
+        private int queueCapacity = 200;
+    }
+
+    @Data
+    public static class Codec {
+        // 关闭时只写 JSON，但仍能读取二进制数据；滚动发布先关闭上线，全部节点升级后再打开
+        private boolean binaryEnabled = false;
+        // 编码后超过该字节数才尝试 LZ4 压缩，小对象压缩收益抵不上 CPU
+        private int compressThreshold = 512;
+    }
+
+    @Data
+    public static class HotKey {
+        private boolean enabled = true;
+        // 滑动窗口长度，以及窗口内 (单节点) 访问多少次算热点
+        private Duration window = Duration.ofSeconds(10);
+        private long threshold = 200;
+        // 最多驻留的热点 Key 数量
+        private int maxHotKeys = 100;
+        // 驻留缓存的固定预算 (按估算字节数，计入 local.max-bytes 总预算)，可用 local.caches.<缓存名>-hot 覆盖
+        private DataSize maxBytes = DataSize.ofMegabytes(4);
+        // 驻留 TTL，远长于普通一级缓存；变更靠失效广播清理，这里只是兜底
+        private Duration ttl = Duration.ofMinutes(10);
+        // 主动刷新间隔：重新计算热点集合，并从 Redis 刷新驻留的值
+        private Duration refreshInterval = Duration.ofSeconds(10);
+        // Count-Min Sketch 尺寸，width 越大误差越小 (每个窗口占用 width * depth * 4 字节)
+        private int sketchWidth = 4096;
+        private int sketchDepth = 4;
+    }
+
+    @Data
+    public static class Warmup {
+        private boolean enabled = true;
+        // 预热总耗时上限，超出后停止，剩余数据按正常路径加载 (预热期间 Pod 不会就绪)
+        private Duration timeBudget = Duration.ofSeconds(30);
+        // 每个缓存最多预热的条数，应小于一级缓存预算能容纳的条数
+        private int maxEntries = 5000;
+        // 每批 MGET / 批量回源的条数
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Invalidation {
+        // 第二次删除的延迟，应大于一次回源 (查库 + 写缓存) 的耗时；0 表示不做第二次删除
+        private Duration secondDeleteDelay = Duration.ofSeconds(1);
+        // 单条 DEL 命令最多携带的 Key 数
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class RedisBreaker {
+        private boolean enabled = true;
+        // 单次 Redis 调用超过该耗时记为慢调用
+        private Duration slowCallThreshold = Duration.ofMillis(200);
+        // 统计窗口内慢调用比例 / 异常比例超过阈值即熔断
+        private double slowCallRatio = 0.5;
+        private double errorRatio = 0.5;
+        // 统计窗口内请求数达到该值才开始判断，避免低流量时误熔断
+        private int minRequests = 20;
+        private Duration statInterval = Duration.ofSeconds(1);
+        // 熔断持续时间，之后放一个探测请求 (半开)，成功则恢复
+        private Duration openDuration = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class DbBulkhead {
+        // 每个缓存同时回源的最大线程数 (同步和异步路径共用)
+        private int maxConcurrent = 20;
+        // 等待许可的最长时间，超时直接拒绝
+        private Duration maxWait = Duration.ofMillis(200);
+    }
+}
@@ -0,0 +1,31 @@
+package com.kayz.heac.event.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 发布通知 (RocketMQ) 配置 (heac.notify.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "heac.notify")
+public class NotifyProperties {
+
+    /**
+     * 单次异步发送的超时
+     */
+    private Duration sendTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 发送失败后的最大重试次数，用尽后放弃并计入 heac.notify.publish.dropped
+     */
+    private int maxRetries = 3;
+
+    /**
+     * 首次重试的间隔，之后每次翻倍
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+}
@@ -0,0 +1,93 @@
+package com.kayz.heac.event.config;
+
+import com.kayz.heac.event.job.HeatFlushJob;
+import com.kayz.heac.event.job.HotKeyRefreshJob;
+import com.kayz.heac.event.job.TransitionSweepJob;
+import org.quartz.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QuartzConfig {
+
+    @Bean
+    public JobDetail hotKeyRefreshJobDetail() {
+        return JobBuilder.newJob(HotKeyRefreshJob.class)
+                .withIdentity("hotKeyRefreshJob", "cacheGroup")
+                .storeDurably()
+                .withDescription("重新计算热点 Key 并刷新本地驻留缓存")
+                .build();
+    }
+
+    /**
+     * 按 heac.cache.hot-key.refresh-interval 固定间隔执行
+     */
+    @Bean
+    public Trigger hotKeyRefreshTrigger(MultiLevelCacheProperties properties) {
+        SimpleScheduleBuilder scheduleBuilder = SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(properties.getHotKey().getRefreshInterval().toMillis())
+                .repeatForever()
+                // 错过的触发不补跑，热点刷新只关心最新状态
+                .withMisfireHandlingInstructionNextWithRemainingCount();
+
+        return TriggerBuilder.newTrigger()
+                .forJob(hotKeyRefreshJobDetail())
+                .withIdentity("hotKeyRefreshTrigger", "cacheGroup")
+                .withSchedule(scheduleBuilder)
+                .build();
+    }
+
+    @Bean
+    public JobDetail heatFlushJobDetail() {
+        return JobBuilder.newJob(HeatFlushJob.class)
+                .withIdentity("heatFlushJob", "heatGroup")
+                .storeDurably()
+                .withDescription("批量落库内存中累计的热度增量")
+                .build();
+    }
+
+    /**
+     * 按 heac.heat.flush-interval 固定间隔执行
+     */
+    @Bean
+    public Trigger heatFlushTrigger(HeatProperties properties) {
+        SimpleScheduleBuilder scheduleBuilder = SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(properties.getFlushInterval().toMillis())
+                .repeatForever()
+                // 错过的触发不补跑，下一次落库会带上全部累计的增量
+                .withMisfireHandlingInstructionNextWithRemainingCount();
+
+        return TriggerBuilder.newTrigger()
+                .forJob(heatFlushJobDetail())
+                .withIdentity("heatFlushTrigger", "heatGroup")
+                .withSchedule(scheduleBuilder)
+                .build();
+    }
+
+    @Bean
+    public JobDetail transitionSweepJobDetail() {
+        return JobBuilder.newJob(TransitionSweepJob.class)
+                .withIdentity("transitionSweepJob", "transitionGroup")
+                .storeDurably()
+                .withDescription("兜底扫描已过期仍未流转的事件")
+                .build();
+    }
+
+    /**
+     * 按 heac.transition.sweep-interval 固定间隔执行
+     */
+    @Bean
+    public Trigger transitionSweepTrigger(TransitionProperties properties) {
+        SimpleScheduleBuilder scheduleBuilder = SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(properties.getSweepInterval().toMillis())
+                .repeatForever()
+                // 错过的触发不补跑，下一次扫描会捞出全部过期的事件
+                .withMisfireHandlingInstructionNextWithRemainingCount();
+
+        return TriggerBuilder.newTrigger()
+                .forJob(transitionSweepJobDetail())
+                .withIdentity("transitionSweepTrigger", "transitionGroup")
+                .withSchedule(scheduleBuilder)
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.kayz.heac.event.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 事件状态自动流转配置 (heac.transition.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "heac.transition")
+public class TransitionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 时间轮刻度，也是流转时刻的最大误差
+     */
+    private Duration tickDuration = Duration.ofMillis(100);
+
+    /**
+     * 时间轮槽数 (tick-duration * ticks-per-wheel 为一圈的时长，超过一圈的任务按圈数在同一槽内等待)
+     */
+    private int ticksPerWheel = 512;
+
+    /**
+     * 本地时间轮只持有 horizon 内到期的流转，更远的通过 RocketMQ 延迟消息接力，临近时再进入某个节点的时间轮
+     */
+    private Duration horizon = Duration.ofMinutes(10);
+
+    /**
+     * 同一时刻到期的流转合并为一条 UPDATE，每批最多的事件数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 单节点时间轮中最多的待执行流转数，超出后不再加入 (由下次启动加载兜底)
+     */
+    private int maxPending = 100_000;
+
+    /**
+     * 兜底扫描间隔：查出已过期仍未流转的事件 (时间轮满、延迟消息丢失等情况)，走状态 + 时间索引
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+}
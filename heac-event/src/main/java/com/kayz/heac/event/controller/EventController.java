@@ -0,0 +1,91 @@
+package com.kayz.heac.event.controller;
+
+import com.kayz.heac.common.entity.HeacResponseEntity;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.service.EventService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/event")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final EventService eventService;
+
+    /**
+     * 事件详情，支持 ETag 协商缓存
+     * <p>
+     * ETag 由乐观锁版本号生成 (每次更新 +1)。带 If-None-Match 的轮询先只查一级缓存中的版本号，
+     * 一致时直接返回 304，不读 Redis、不查库、不序列化；一级缓存未命中时走正常读取后再比较。
+     * 草稿和已下架的事件返回 404
+     *
+     * @param id          事件ID
+     * @param ifNoneMatch 客户端上次拿到的 ETag
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<HeacResponseEntity<Event>> detail(@PathVariable String id,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Long cachedVersion = eventService.getCachedVersion(id);
+            if (cachedVersion != null && matches(ifNoneMatch, etag(cachedVersion))) {
+                return notModified(etag(cachedVersion));
+            }
+        }
+
+        // 草稿和已下架的事件与不存在一样返回 404，不暴露其存在
+        Event event = eventService.getPublicDetail(id);
+        if (event == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(HeacResponseEntity.notFound("事件不存在"));
+        }
+        if (event.getVersion() == null) {
+            return ResponseEntity.ok(HeacResponseEntity.success(event));
+        }
+        String etag = etag(event.getVersion());
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(HeacResponseEntity.success(event));
+    }
+
+    private static ResponseEntity<HeacResponseEntity<Event>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    /**
+     * 弱 ETag：版本号相同即语义相同，不保证字节级一致 (JSON 字段顺序、网关压缩都可能不同)
+     */
+    private static String etag(long version) {
+        return "W/\"v" + version + "\"";
+    }
+
+    /**
+     * If-None-Match 使用弱比较：可能是逗号分隔的多个 ETag 或 *
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || opaque.equals(stripWeak(trimmed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
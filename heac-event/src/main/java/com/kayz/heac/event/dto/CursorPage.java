@@ -0,0 +1,26 @@
+package com.kayz.heac.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果
+ *
+ * @param <T> 列表项类型
+ */
+@Data
+@AllArgsConstructor(staticName = "of")
+public class CursorPage<T> implements Serializable {
+
+    private List<T> items;
+
+    /**
+     * 下一页的游标 (不透明字符串，原样传回即可)，没有下一页时为 null
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,28 @@
+package com.kayz.heac.event.dto;
+
+import com.kayz.heac.event.enums.EventStatus;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 事件列表项：只包含列表页展示的列 (不含摘要和审计字段)
+ */
+@Data
+public class EventListItemVO implements Serializable {
+
+    private String id;
+
+    private String title;
+
+    private String coverImg;
+
+    private EventStatus status;
+
+    private Long heatScore;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+}
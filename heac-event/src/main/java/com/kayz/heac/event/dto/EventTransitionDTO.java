@@ -0,0 +1,27 @@
+package com.kayz.heac.event.dto;
+
+import com.kayz.heac.event.transition.EventTransition;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 状态流转延迟消息
+ * 用于 RocketMQ: event-topic:transition (距离到期超过 horizon 时按延迟级别接力投递)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventTransitionDTO implements Serializable {
+
+    private String eventId;
+
+    private EventTransition transition;
+
+    /**
+     * 到期时间 (epoch 毫秒)
+     */
+    private long dueAt;
+}
@@ -0,0 +1,19 @@
+package com.kayz.heac.event.heat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 会增加事件热度的用户行为及其权重
+ */
+@Getter
+@AllArgsConstructor
+public enum HeatAction {
+
+    VIEW(1, "浏览"),
+    LIKE(5, "点赞"),
+    SHARE(10, "分享");
+
+    private final long weight;
+    private final String desc;
+}
@@ -0,0 +1,63 @@
+package com.kayz.heac.event.heat;
+
+import com.kayz.heac.event.config.HeatProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热度的指数时间衰减 (对数空间存储)
+ * <p>
+ * 事件在时刻 t 的衰减热度为 Σ wᵢ · e^(-λ(t - tᵢ))，λ = ln2 / 半衰期。提出公共因子 e^(-λ(t - t₀)) 后：
+ * <pre>
+ *     H(t) = e^(-λ(t - t₀)) · Σ wᵢ · e^(λ(tᵢ - t₀))
+ * </pre>
+ * 公共因子对所有事件相同，不影响排序，所以只需存 S = ln(Σ wᵢ · e^(λ(tᵢ - t₀)))：
+ * <ul>
+ *     <li>新增一次互动只需 S' = logAddExp(S, ln(w) + λ(t - t₀))，与事件总数和已有分数无关</li>
+ *     <li>随着时间推移分数不需要重算，旧事件自然被新互动超过</li>
+ *     <li>直接存 Σ 的话 e^(λ(t - t₀)) 几个月后就会溢出 double，取对数后分数只随时间线性增长</li>
+ * </ul>
+ */
+@Component
+public class HeatDecay {
+
+    private final double lambdaPerMilli;
+    private final long epochMillis;
+
+    public HeatDecay(HeatProperties properties) {
+        HeatProperties.Decay config = properties.getDecay();
+        this.lambdaPerMilli = Math.log(2) / config.getHalfLife().toMillis();
+        this.epochMillis = config.getEpoch().toEpochMilli();
+    }
+
+    /**
+     * 在 atMillis 时刻发生的一次权重为 weight 的互动，对应的对数分数增量 ln(w) + λ(t - t₀)
+     *
+     * @param weight 必须为正数
+     */
+    public double logIncrement(long weight, long atMillis) {
+        return Math.log(weight) + lambdaPerMilli * (atMillis - epochMillis);
+    }
+
+    /**
+     * 上榜时的初始分数：已有的 heat 视为在 atMillis 时刻一次性获得 (heat 为 0 时按 1 计，保证分数有限)
+     */
+    public double seed(long heat, long atMillis) {
+        return logIncrement(Math.max(heat, 1), atMillis);
+    }
+
+    /**
+     * 把对数分数换算为 nowMillis 时刻的衰减热度 (只用于展示，排序直接比较对数分数)
+     */
+    public double decayedHeat(double score, long nowMillis) {
+        return Math.exp(score - lambdaPerMilli * (nowMillis - epochMillis));
+    }
+
+    /**
+     * ln(e^a + e^b)，先提出较大的一项，避免 exp 溢出
+     */
+    public static double logAddExp(double a, double b) {
+        double hi = Math.max(a, b);
+        double lo = Math.min(a, b);
+        return hi + Math.log1p(Math.exp(lo - hi));
+    }
+}
@@ -0,0 +1,14 @@
+package com.kayz.heac.event.heat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 一次落库中单个事件的热度增量 (EventMapper.incrementHeat 的参数)
+ */
+@Data
+@AllArgsConstructor
+public class HeatDelta {
+    private String eventId;
+    private long delta;
+}
@@ -0,0 +1,26 @@
+package com.kayz.heac.event.heat;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 热度采集状态端点：GET /actuator/heacheat
+ * <p>
+ * 重点关注 maxLossWindowMs / pendingDelta：进程此刻崩溃会丢失的时间窗口和热度
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "heacheat")
+public class HeatEndpoint {
+
+    private final HeatIngestor heatIngestor;
+
+    @ReadOperation
+    public Map<String, Object> heat() {
+        return heatIngestor.getStats();
+    }
+}
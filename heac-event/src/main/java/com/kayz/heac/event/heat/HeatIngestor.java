@@ -0,0 +1,227 @@
+package com.kayz.heac.event.heat;
+
+import com.kayz.heac.event.config.HeatProperties;
+import com.kayz.heac.event.mapper.EventMapper;
+import com.kayz.heac.event.rank.EventHotRank;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热度采集：浏览 / 点赞 / 分享等行为先在内存中按事件累加，定时批量落库
+ * <ul>
+ *     <li>写入路径只有一次 Map 查找 + LongAdder.add (内部按线程分段，高并发下不争用同一个 CAS)</li>
+ *     <li>落库：每批一条 UPDATE ... FROM (VALUES ...)，不逐行更新，也不经过乐观锁</li>
+ *     <li>榜单：每批一次 Redis 脚本，按落库时刻换算为衰减分数后累加 (只累加仍在榜上的事件，见 {@link HeatDecay})</li>
+ * </ul>
+ * 代价是最终一致：数据库和榜单最多落后一个 flush-interval；进程崩溃最多丢失一个间隔内的增量
+ * (正常停机时会最后落库一次)。当前丢失上限见 {@link #getStats()} 和 heac.heat.* 指标
+ */
+@Slf4j
+@Component
+public class HeatIngestor {
+
+    /**
+     * 连续多少轮没有增量的事件从 Map 中移除
+     */
+    private static final int IDLE_ROUNDS_BEFORE_EVICT = 60;
+
+    private final ConcurrentMap<String, PendingHeat> pending = new ConcurrentHashMap<>();
+    private final EventMapper eventMapper;
+    private final EventHotRank eventHotRank;
+    private final HeatProperties properties;
+
+    private final LongAdder recorded = new LongAdder();
+    private final Counter dropped;
+    private final Counter flushFailures;
+    private final Counter rankFailures;
+    private final Timer flushTimer;
+
+    private volatile long lastFlushAtMillis = System.currentTimeMillis();
+    private volatile long lastFlushCostMillis;
+    private volatile int lastFlushEvents;
+
+    public HeatIngestor(EventMapper eventMapper, EventHotRank eventHotRank, HeatProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.eventMapper = eventMapper;
+        this.eventHotRank = eventHotRank;
+        this.properties = properties;
+        this.dropped = Counter.builder("heac.heat.dropped")
+                .description("Heat increments dropped because too many events were pending")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("heac.heat.flush.failures")
+                .description("Heat flushes that failed to update the database (deltas are kept for the next flush)")
+                .register(meterRegistry);
+        this.rankFailures = Counter.builder("heac.heat.rank.failures")
+                .description("Heat flushes that updated the database but failed to update the leaderboard")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("heac.heat.flush")
+                .description("Time to flush pending heat deltas to the database and leaderboard")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("heac.heat.pending.events", pending, Map::size)
+                .description("Events with unflushed heat deltas")
+                .register(meterRegistry);
+        Gauge.builder("heac.heat.pending.delta", this, HeatIngestor::pendingDelta)
+                .description("Unflushed heat (lost if the process crashes now)")
+                .register(meterRegistry);
+        Gauge.builder("heac.heat.flush.lag", this, ingestor -> System.currentTimeMillis() - ingestor.lastFlushAtMillis)
+                .description("Milliseconds since the last successful flush")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("heac.heat.recorded", recorded, LongAdder::sum)
+                .description("Heat increments accepted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录一次用户行为
+     */
+    public void record(String eventId, HeatAction action) {
+        add(eventId, action.getWeight());
+    }
+
+    /**
+     * 累加热度增量 (非阻塞，不访问数据库和 Redis)
+     *
+     * @return false 表示待落库的事件过多，本次增量被丢弃
+     */
+    public boolean add(String eventId, long delta) {
+        if (eventId == null || delta == 0) {
+            return true;
+        }
+        PendingHeat heat = pending.get(eventId);
+        if (heat == null) {
+            if (pending.size() >= properties.getMaxPendingEvents()) {
+                dropped.increment();
+                return false;
+            }
+            heat = pending.computeIfAbsent(eventId, id -> new PendingHeat());
+        }
+        heat.delta.add(delta);
+        recorded.increment();
+        return true;
+    }
+
+    /**
+     * 把累计的增量落库并更新榜单 (由定时任务按 flush-interval 调用，同一时间只有一个线程执行)
+     */
+    public synchronized void flush() {
+        long start = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        List<HeatDelta> deltas = drain();
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<HeatDelta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                eventMapper.incrementHeat(batch);
+            } catch (Exception e) {
+                // 数据库失败：把剩余增量放回去，下一轮重试 (不丢也不重复)
+                flushFailures.increment();
+                log.error("Heat flush failed, {} events kept for retry", deltas.size() - from, e);
+                deltas.subList(from, deltas.size()).forEach(delta -> restore(delta.getEventId(), delta.getDelta()));
+                return;
+            }
+            try {
+                eventHotRank.incrementHeat(batch, nowMillis);
+            } catch (Exception e) {
+                // 数据库已更新，不能重试 (否则重复累加)；榜单这部分热度偏低，重建榜单时以数据库为准
+                rankFailures.increment();
+                log.warn("Heat rank update failed: {} events", batch.size(), e);
+            }
+        }
+        long costNanos = System.nanoTime() - start;
+        flushTimer.record(costNanos, TimeUnit.NANOSECONDS);
+        lastFlushAtMillis = System.currentTimeMillis();
+        lastFlushCostMillis = TimeUnit.NANOSECONDS.toMillis(costNanos);
+        lastFlushEvents = deltas.size();
+        if (!deltas.isEmpty()) {
+            log.debug("Heat flushed: events={} cost={}ms", deltas.size(), lastFlushCostMillis);
+        }
+    }
+
+    /**
+     * 取出全部非零增量并清零；长期没有增量的事件从 Map 中移除
+     * <p>
+     * LongAdder.sumThenReset 逐段原子置零，与并发的 add 不会丢失或重复计数。
+     * 移除空闲事件时，恰好在移除前拿到旧对象的 add 会落在已移除的对象上而丢失，
+     * 只可能发生在空闲了 {@link #IDLE_ROUNDS_BEFORE_EVICT} 轮的事件上，可以接受
+     */
+    private List<HeatDelta> drain() {
+        List<HeatDelta> deltas = new ArrayList<>();
+        for (Map.Entry<String, PendingHeat> entry : pending.entrySet()) {
+            PendingHeat heat = entry.getValue();
+            long delta = heat.delta.sumThenReset();
+            if (delta != 0) {
+                heat.idleRounds = 0;
+                deltas.add(new HeatDelta(entry.getKey(), delta));
+            } else if (++heat.idleRounds >= IDLE_ROUNDS_BEFORE_EVICT) {
+                pending.remove(entry.getKey(), heat);
+            }
+        }
+        return deltas;
+    }
+
+    private void restore(String eventId, long delta) {
+        pending.computeIfAbsent(eventId, id -> new PendingHeat()).delta.add(delta);
+    }
+
+    private long pendingDelta() {
+        long total = 0;
+        for (PendingHeat heat : pending.values()) {
+            total += heat.delta.sum();
+        }
+        return total;
+    }
+
+    /**
+     * 正常停机时落库最后一批增量
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Heat flush on shutdown failed, pending delta={}", pendingDelta(), e);
+        }
+    }
+
+    /**
+     * 当前状态 (actuator 端点 heacheat 使用)
+     * <p>
+     * maxLossWindowMs：进程此刻崩溃最多丢失多长时间内的热度 (距上次成功落库的时间，正常情况下 ≈ flush-interval)
+     */
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("recorded", recorded.sum());
+        stats.put("dropped", (long) dropped.count());
+        stats.put("pendingEvents", pending.size());
+        stats.put("pendingDelta", pendingDelta());
+        stats.put("flushIntervalMs", properties.getFlushInterval().toMillis());
+        stats.put("lastFlushAt", lastFlushAtMillis);
+        stats.put("lastFlushCostMs", lastFlushCostMillis);
+        stats.put("lastFlushEvents", lastFlushEvents);
+        stats.put("maxLossWindowMs", now - lastFlushAtMillis);
+        stats.put("flushFailures", (long) flushFailures.count());
+        stats.put("rankFailures", (long) rankFailures.count());
+        return stats;
+    }
+
+    private static final class PendingHeat {
+        final LongAdder delta = new LongAdder();
+        // 只在 flush 线程中读写
+        int idleRounds;
+    }
+}
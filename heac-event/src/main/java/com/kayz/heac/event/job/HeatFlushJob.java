@@ -0,0 +1,27 @@
+package com.kayz.heac.event.job;
+
+import com.kayz.heac.event.heat.HeatIngestor;
+import lombok.RequiredArgsConstructor;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热度落库：把各节点内存中累计的热度增量批量写入数据库和热榜
+ * (每个节点各自执行，只落自己采集到的增量)
+ */
+@Component
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class HeatFlushJob extends QuartzJobBean {
+
+    private final HeatIngestor heatIngestor;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        // 失败的增量由 HeatIngestor 保留到下一轮，这里不需要重试
+        heatIngestor.flush();
+    }
+}
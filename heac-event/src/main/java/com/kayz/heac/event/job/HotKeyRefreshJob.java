@@ -0,0 +1,37 @@
+package com.kayz.heac.event.job;
+
+import com.kayz.heac.event.cache.AbstractCacheManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 热点 Key 刷新：重新计算各缓存的热点集合，并从 Redis 刷新本节点驻留的热点值
+ * (每个节点各自执行，使用内存 JobStore)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class HotKeyRefreshJob extends QuartzJobBean {
+
+    private final List<AbstractCacheManager<?>> cacheManagers;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        for (AbstractCacheManager<?> cacheManager : cacheManagers) {
+            try {
+                cacheManager.refreshHotKeys();
+            } catch (Exception e) {
+                // 刷新失败不影响驻留的旧值，下一轮再试
+                log.warn("Hot key refresh failed: {}", cacheManager.getCacheName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.kayz.heac.event.job;
+
+import com.kayz.heac.event.transition.EventTransitionScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * 状态流转兜底扫描：捞出已过期仍未流转的事件
+ * (每个节点都会触发，通过分布式锁保证同一时刻只有一个节点查库)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class TransitionSweepJob extends QuartzJobBean {
+
+    private final EventTransitionScheduler transitionScheduler;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        try {
+            transitionScheduler.sweepOverdue();
+        } catch (Exception e) {
+            // 下一轮再扫
+            log.warn("Event transition sweep failed", e);
+        }
+    }
+}
@@ -1,10 +1,44 @@
 package com.kayz.heac.event.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.kayz.heac.event.dto.EventListItemVO;
 import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import com.kayz.heac.event.heat.HeatDelta;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Mapper
 public interface EventMapper extends BaseMapper<Event> {
 
+    /**
+     * 批量累加热度：一条 UPDATE ... FROM (VALUES ...)，不经过乐观锁，也不修改 version / update_time
+     *
+     * @param deltas 事件ID -> 增量 (同一批内ID不重复)
+     * @return 实际更新的行数 (已删除的事件不更新)
+     */
+    int incrementHeat(@Param("deltas") List<HeatDelta> deltas);
+
+    /**
+     * 按开始时间倒序的 Keyset 分页 (只查有开始时间的事件)
+     *
+     * @param afterStartTime 上一页最后一条的开始时间，null 表示第一页
+     * @param afterId        上一页最后一条的ID
+     */
+    List<EventListItemVO> listTimedByStatus(@Param("status") EventStatus status,
+                                            @Param("afterStartTime") LocalDateTime afterStartTime,
+                                            @Param("afterId") String afterId,
+                                            @Param("limit") int limit);
+
+    /**
+     * 没有开始时间的事件 (草稿等)，按ID倒序的 Keyset 分页
+     *
+     * @param afterId 上一页最后一条的ID，null 表示从头开始
+     */
+    List<EventListItemVO> listUntimedByStatus(@Param("status") EventStatus status,
+                                              @Param("afterId") String afterId,
+                                              @Param("limit") int limit);
 }
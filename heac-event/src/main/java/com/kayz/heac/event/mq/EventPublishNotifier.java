@@ -0,0 +1,154 @@
+package com.kayz.heac.event.mq;
+
+import com.kayz.heac.event.config.NotifyProperties;
+import com.kayz.heac.event.dto.EventPublishDTO;
+import com.kayz.heac.event.support.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.client.producer.SendCallback;
+import org.apache.rocketmq.client.producer.SendResult;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 事件发布通知 (event-topic:publish)：事务提交后异步发送，不占用事务和请求线程
+ * <ul>
+ *     <li>提交后才发送，回滚的发布不会发出通知；发送结果在回调中处理，接口耗时与 Broker 状态无关</li>
+ *     <li>失败按指数退避重试 max-retries 次，仍失败则放弃并计数 (进程崩溃时未发出的通知同样丢失，消费方需能容忍)</li>
+ *     <li>多条通知按批量消息发送，整批一起重试</li>
+ * </ul>
+ * 指标：heac.notify.publish.send (发送耗时，按 result 区分)、heac.notify.publish.retries / dropped、heac.notify.publish.in-flight
+ */
+@Slf4j
+@Component
+public class EventPublishNotifier {
+
+    static final String PUBLISH_DESTINATION = "event-topic:publish";
+    /**
+     * 单条批量消息携带的通知数 (RocketMQ 批量消息总大小不能超过 4MB)
+     */
+    private static final int BATCH_SIZE = 100;
+
+    private final RocketMQTemplate rocketMQTemplate;
+    private final NotifyProperties properties;
+    private final TaskScheduler retryScheduler;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final Counter retries;
+    private final Counter dropped;
+
+    public EventPublishNotifier(RocketMQTemplate rocketMQTemplate,
+                                NotifyProperties properties,
+                                @Qualifier("notifyRetryScheduler") TaskScheduler retryScheduler,
+                                MeterRegistry meterRegistry) {
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.properties = properties;
+        this.retryScheduler = retryScheduler;
+        this.sendSuccess = sendTimer(meterRegistry, "success");
+        this.sendFailure = sendTimer(meterRegistry, "failure");
+        this.retries = Counter.builder("heac.notify.publish.retries")
+                .description("Publish notification sends retried after a failure")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("heac.notify.publish.dropped")
+                .description("Publish notifications given up after all retries failed")
+                .register(meterRegistry);
+        Gauge.builder("heac.notify.publish.in-flight", inFlight, AtomicInteger::get)
+                .description("Publish notification sends awaiting a broker response or a retry")
+                .register(meterRegistry);
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("heac.notify.publish.send")
+                .description("Time from async send to broker acknowledgement")
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 事务提交后异步发送 (无事务时立即发送)，本方法不阻塞
+     */
+    public void publishAfterCommit(List<EventPublishDTO> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> publish(notifications));
+    }
+
+    private void publish(List<EventPublishDTO> notifications) {
+        for (int from = 0; from < notifications.size(); from += BATCH_SIZE) {
+            List<Message<EventPublishDTO>> messages = notifications.subList(from, Math.min(from + BATCH_SIZE, notifications.size()))
+                    .stream()
+                    .map(notification -> MessageBuilder.withPayload(notification).build())
+                    .toList();
+            inFlight.incrementAndGet();
+            send(messages, 0);
+        }
+    }
+
+    private void send(List<Message<EventPublishDTO>> messages, int attempt) {
+        long start = System.nanoTime();
+        SendCallback callback = new SendCallback() {
+            @Override
+            public void onSuccess(SendResult sendResult) {
+                sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                inFlight.decrementAndGet();
+                log.debug("事件发布消息已发送: {} 条 msgId={}", messages.size(), sendResult.getMsgId());
+            }
+
+            @Override
+            public void onException(Throwable e) {
+                sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                retryOrDrop(messages, attempt, e);
+            }
+        };
+        long timeout = properties.getSendTimeout().toMillis();
+        try {
+            if (messages.size() == 1) {
+                rocketMQTemplate.asyncSend(PUBLISH_DESTINATION, messages.get(0), callback, timeout);
+            } else {
+                rocketMQTemplate.asyncSend(PUBLISH_DESTINATION, messages, callback, timeout);
+            }
+        } catch (Exception e) {
+            // 发送前就失败 (如生产者未启动、异步线程池已满)，不会再回调
+            sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            retryOrDrop(messages, attempt, e);
+        }
+    }
+
+    private void retryOrDrop(List<Message<EventPublishDTO>> messages, int attempt, Throwable cause) {
+        if (attempt >= properties.getMaxRetries()) {
+            drop(messages, cause);
+            return;
+        }
+        long backoffMillis = properties.getRetryBackoff().toMillis() << attempt;
+        log.warn("事件发布消息发送失败，{}ms 后第 {} 次重试: {} 条", backoffMillis, attempt + 1, messages.size(), cause);
+        retries.increment();
+        try {
+            retryScheduler.schedule(() -> send(messages, attempt + 1), Instant.now().plusMillis(backoffMillis));
+        } catch (RejectedExecutionException e) {
+            drop(messages, cause);
+        }
+    }
+
+    private void drop(List<Message<EventPublishDTO>> messages, Throwable cause) {
+        inFlight.decrementAndGet();
+        dropped.increment(messages.size());
+        log.error("事件发布消息发送失败，已放弃: {}", messages.stream().map(message -> message.getPayload().getEventId()).toList(), cause);
+    }
+}
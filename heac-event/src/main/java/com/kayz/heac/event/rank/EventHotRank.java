@@ -0,0 +1,273 @@
+package com.kayz.heac.event.rank;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.kayz.heac.common.exception.CacheUnavailableException;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import com.kayz.heac.event.heat.HeatDecay;
+import com.kayz.heac.event.heat.HeatDelta;
+import com.kayz.heac.event.mapper.EventMapper;
+import com.kayz.heac.event.support.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.*;
+
+import static com.kayz.heac.common.consts.RedisPrefix.EVENT_HOT_RANK_KEY;
+import static com.kayz.heac.common.consts.RedisPrefix.EVENT_HOT_RANK_READY_KEY;
+import static com.kayz.heac.common.consts.RedisPrefix.LEGACY_EVENT_HOT_RANK_KEY;
+
+/**
+ * 热榜：Redis ZSET 维护全部进行中 (PUBLISHED) 的事件，score 为随时间衰减的对数热度 (见 {@link HeatDecay})
+ * <ul>
+ *     <li>发布时加入，下架 / 删除时移除，热度增量只累加到已在榜上的成员</li>
+ *     <li>衰减体现在新增量的分数更大，已有分数永远不需要重算</li>
+ *     <li>分页读取为 ZREVRANGE，O(log n + k)，不查数据库</li>
+ *     <li>ZSET 只是派生数据：启动时未完成重建 (Redis 清空 / 首次上线 / Key 版本升级 / 上次重建中断) 则从数据库重建</li>
+ * </ul>
+ * 榜单只保存ID，详情由调用方通过缓存批量获取
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventHotRank {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    /**
+     * 旧格式榜单在重建后保留的时间，滚动发布期间未升级的节点仍在读写它
+     */
+    private static final Duration LEGACY_KEY_TTL = Duration.ofDays(1);
+
+    /**
+     * 批量累加对数热度 S' = ln(e^S + e^x)，只累加已在榜上的成员 (不会把已下架的事件加回来)
+     * KEYS[1] 榜单 Key; ARGV 依次为 事件ID, 对数增量, 事件ID, 对数增量 ...
+     */
+    private static final RedisScript<Long> LOG_ADD_IF_PRESENT_SCRIPT = new DefaultRedisScript<>("""
+            local updated = 0
+            for i = 1, #ARGV, 2 do
+                local current = redis.call('ZSCORE', KEYS[1], ARGV[i])
+                if current then
+                    local a = tonumber(current)
+                    local b = tonumber(ARGV[i + 1])
+                    local hi = math.max(a, b)
+                    local score = hi + math.log(1 + math.exp(math.min(a, b) - hi))
+                    redis.call('ZADD', KEYS[1], 'XX', tostring(score), ARGV[i])
+                    updated = updated + 1
+                end
+            end
+            return updated
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedissonClient redissonClient;
+    private final EventMapper eventMapper;
+    private final HeatDecay heatDecay;
+
+    /**
+     * 按热度倒序分页读取，分数换算为当前时刻的衰减热度 (展示用)
+     *
+     * @param offset 起始名次 (从 0 开始)
+     * @param limit  条数
+     * @return 事件ID -> 衰减热度，按热度倒序
+     * @throws CacheUnavailableException Redis 不可用 (热榜不会退化为查库)
+     */
+    public Map<String, Double> page(long offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return Map.of();
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples;
+        try {
+            tuples = stringRedisTemplate.opsForZSet().reverseRangeWithScores(EVENT_HOT_RANK_KEY, offset, offset + limit - 1);
+        } catch (Exception e) {
+            log.error("Hot rank read failed", e);
+            throw new CacheUnavailableException("热榜暂不可用，请稍后重试");
+        }
+        if (tuples == null || tuples.isEmpty()) {
+            return Map.of();
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Double> result = new LinkedHashMap<>(tuples.size() * 2);
+        tuples.forEach(tuple -> result.put(tuple.getValue(),
+                tuple.getScore() == null ? 0 : heatDecay.decayedHeat(tuple.getScore(), now)));
+        return result;
+    }
+
+    /**
+     * 上榜 (已在榜上时覆盖分数)：已有热度视为此刻一次性获得
+     */
+    public void add(String id, long heat) {
+        stringRedisTemplate.opsForZSet().add(EVENT_HOT_RANK_KEY, id, heatDecay.seed(heat, System.currentTimeMillis()));
+    }
+
+    /**
+     * 批量上榜 (一条 ZADD)
+     *
+     * @param heats 事件ID -> 已有热度
+     */
+    public void addAll(Map<String, Long> heats) {
+        if (heats.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(heats.size() * 2);
+        heats.forEach((id, heat) -> tuples.add(new DefaultTypedTuple<>(id, heatDecay.seed(heat, now))));
+        stringRedisTemplate.opsForZSet().add(EVENT_HOT_RANK_KEY, tuples);
+    }
+
+    /**
+     * 批量累加热度 (一次脚本调用，一次网络往返)，不在榜上的事件忽略
+     * <p>
+     * 每个增量换算为 atMillis 时刻的对数增量，单个事件的更新代价与榜单大小和事件年龄无关 (ZADD 本身 O(log n))
+     *
+     * @param deltas   热度增量，非正数的增量不影响排名 (对数空间只做累加)
+     * @param atMillis 增量的发生时间 (取落库时刻，误差不超过一个落库间隔)
+     * @return 榜上被更新的事件数
+     */
+    public long incrementHeat(List<HeatDelta> deltas, long atMillis) {
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        for (HeatDelta delta : deltas) {
+            if (delta.getDelta() > 0) {
+                args.add(delta.getEventId());
+                args.add(String.valueOf(heatDecay.logIncrement(delta.getDelta(), atMillis)));
+            }
+        }
+        if (args.isEmpty()) {
+            return 0;
+        }
+        Long updated = stringRedisTemplate.execute(LOG_ADD_IF_PRESENT_SCRIPT, List.of(EVENT_HOT_RANK_KEY), args.toArray());
+        return updated == null ? 0 : updated;
+    }
+
+    public void remove(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.opsForZSet().remove(EVENT_HOT_RANK_KEY, ids.toArray());
+    }
+
+    /**
+     * 事务提交后上榜 (无事务时立即执行)；失败只记录日志，下次重建时补齐
+     */
+    public void addAfterCommit(String id, long heat) {
+        afterCommit(() -> add(id, heat));
+    }
+
+    /**
+     * 事务提交后下榜 (无事务时立即执行)
+     */
+    public void removeAfterCommit(String id) {
+        afterCommit(() -> remove(List.of(id)));
+    }
+
+    /**
+     * 事务提交后批量上榜 (无事务时立即执行)
+     */
+    public void addAllAfterCommit(Map<String, Long> heats) {
+        afterCommit(() -> addAll(heats));
+    }
+
+    /**
+     * 事务提交后批量下榜 (无事务时立即执行)
+     */
+    public void removeAllAfterCommit(Collection<String> ids) {
+        afterCommit(() -> remove(ids));
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("Hot rank update failed", e);
+            }
+        });
+    }
+
+    /**
+     * 启动时榜单未完成重建则从数据库重建 (多节点同时启动时只有一个节点执行)
+     * <p>
+     * 以完成标记而不是 Key 是否存在为准：启动前发布 / 自动流转写入的少量成员、或上次重建中途失败，
+     * 都会让 Key 存在但榜单不完整。
+     * 直接写入线上 Key 且只补不存在的成员 (ZADD NX)，不会覆盖重建期间实时写入的热度，重复重建也没有副作用。
+     * 数据库只有累计热度，没有互动时间，重建时按"全部在开始时间获得"估算初始分数，之后随新互动自然修正
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        try {
+            if (rebuilt()) {
+                return;
+            }
+            RLock lock = redissonClient.getLock("lock:" + EVENT_HOT_RANK_KEY);
+            if (!lock.tryLock()) {
+                // 其他节点正在重建
+                return;
+            }
+            try {
+                if (!rebuilt()) {
+                    rebuild();
+                    // 最后一批写入之后才设置标记，中途失败时下次启动重新执行
+                    stringRedisTemplate.opsForValue().set(EVENT_HOT_RANK_READY_KEY, String.valueOf(System.currentTimeMillis()));
+                    // 旧格式榜单 (原始热度) 不再使用，给仍在运行的旧节点留出时间后自动过期
+                    stringRedisTemplate.expire(LEGACY_EVENT_HOT_RANK_KEY, LEGACY_KEY_TTL);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            // 重建失败不影响启动，完成标记未写入，下次启动重新补齐
+            log.error("Hot rank rebuild failed", e);
+        }
+    }
+
+    /**
+     * 完成标记存在且榜单 Key 仍在 (Key 被单独删除时标记随之失效)
+     */
+    private boolean rebuilt() {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(EVENT_HOT_RANK_READY_KEY))
+                && Boolean.TRUE.equals(stringRedisTemplate.hasKey(EVENT_HOT_RANK_KEY));
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        long total = 0;
+        String lastId = null;
+        while (true) {
+            List<Event> batch = eventMapper.selectList(Wrappers.<Event>lambdaQuery()
+                    .select(Event::getId, Event::getHeatScore, Event::getStartTime)
+                    .eq(Event::getStatus, EventStatus.PUBLISHED)
+                    .gt(lastId != null, Event::getId, lastId)
+                    .orderByAsc(Event::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(batch.size() * 2);
+            long now = System.currentTimeMillis();
+            batch.forEach(event -> {
+                long heat = event.getHeatScore() == null ? 0L : event.getHeatScore();
+                long startMillis = event.getStartTime() == null ? now
+                        : event.getStartTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                tuples.add(new DefaultTypedTuple<>(event.getId(), heatDecay.seed(heat, startMillis)));
+            });
+            stringRedisTemplate.opsForZSet().addIfAbsent(EVENT_HOT_RANK_KEY, tuples);
+            total += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        log.info("Hot rank rebuilt: events={} cost={}ms", total, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,282 @@
+package com.kayz.heac.event.search;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import com.kayz.heac.event.mapper.EventMapper;
+import com.kayz.heac.event.support.TransactionHooks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件全文检索：标题 + 摘要的内存倒排索引 (Lucene，SmartChineseAnalyzer 中文分词)
+ * <ul>
+ *     <li>每个节点各持有一份完整索引，启动时从数据库重建 (ApplicationRunner 阶段，重建完成前不就绪)</li>
+ *     <li>写操作提交后按ID从数据库重新读取并更新本节点索引，再通过 Redis 广播让其他节点做同样的事 (广播丢失时由下次重启修正)</li>
+ *     <li>查询只走内存索引，耗时与表大小基本无关；只返回ID，详情由调用方批量走多级缓存</li>
+ * </ul>
+ * 草稿和已下架的事件同样在索引中 (状态变化只需更新一个字段)，查询时按状态过滤
+ */
+@Slf4j
+@Component
+public class EventSearchIndex implements ApplicationRunner {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_STATUS = "status";
+    /**
+     * 标题命中的权重高于摘要
+     */
+    private static final float TITLE_BOOST = 2.0f;
+    /**
+     * 对外可搜索的状态
+     */
+    private static final List<EventStatus> SEARCHABLE_STATUSES =
+            List.of(EventStatus.WARMUP, EventStatus.PUBLISHED, EventStatus.ENDED);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final String NODE_ID = UUID.randomUUID().toString();
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private final EventMapper eventMapper;
+    private final RedissonClient redissonClient;
+
+    private final Analyzer analyzer = new SmartChineseAnalyzer();
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Query statusFilter;
+    private final Timer searchTimer;
+
+    public EventSearchIndex(EventMapper eventMapper, RedissonClient redissonClient, MeterRegistry meterRegistry)
+            throws IOException {
+        this.eventMapper = eventMapper;
+        this.redissonClient = redissonClient;
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        this.searcherManager = new SearcherManager(writer, null);
+        BooleanQuery.Builder filter = new BooleanQuery.Builder();
+        SEARCHABLE_STATUSES.forEach(status ->
+                filter.add(new TermQuery(new Term(FIELD_STATUS, status.getCode())), BooleanClause.Occur.SHOULD));
+        this.statusFilter = filter.build();
+        this.searchTimer = Timer.builder("heac.search.query")
+                .description("Full-text search latency")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("heac.search.docs", writer, w -> w.getDocStats().numDocs)
+                .description("Events in the local search index")
+                .register(meterRegistry);
+        Gauge.builder("heac.search.index.bytes", directory, ByteBuffersDirectory::ramBytesUsed)
+                .description("Heap used by the local search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 按关键词搜索对外可见的事件，按相关度排序
+     *
+     * @param keyword 关键词 (分词后任一词命中即可，命中越多、命中标题排名越靠前)
+     * @param limit   最多返回条数
+     * @return 事件ID
+     */
+    public List<String> search(String keyword, int limit) {
+        if (keyword == null || keyword.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        QueryBuilder builder = new QueryBuilder(analyzer);
+        Query title = builder.createBooleanQuery(FIELD_TITLE, keyword);
+        Query summary = builder.createBooleanQuery(FIELD_SUMMARY, keyword);
+        if (title == null && summary == null) {
+            // 全是停用词 / 标点
+            return List.of();
+        }
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        if (title != null) {
+            text.add(new BoostQuery(title, TITLE_BOOST), BooleanClause.Occur.SHOULD);
+        }
+        if (summary != null) {
+            text.add(summary, BooleanClause.Occur.SHOULD);
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(text.build(), BooleanClause.Occur.MUST)
+                .add(statusFilter, BooleanClause.Occur.FILTER)
+                .build();
+
+        long start = System.nanoTime();
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, limit);
+            StoredFields storedFields = searcher.storedFields();
+            List<String> ids = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                ids.add(storedFields.document(scoreDoc.doc, Set.of(FIELD_ID)).get(FIELD_ID));
+            }
+            return ids;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 事务提交后按ID重新索引 (无事务时立即执行)，并通知其他节点
+     *
+     * @param ids 新增 / 修改 / 删除的事件ID
+     */
+    public void reindexAfterCommit(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> copy = List.copyOf(ids);
+        TransactionHooks.afterCommit(() -> {
+            try {
+                reindex(copy);
+            } catch (Exception e) {
+                log.warn("Search index update failed: {}", copy, e);
+            }
+            broadcast(copy);
+        });
+    }
+
+    /**
+     * 从数据库读取最新数据 (一次 IN 查询) 更新索引，已删除的从索引中移除
+     */
+    private void reindex(Collection<String> ids) throws IOException {
+        Map<String, Event> events = new HashMap<>();
+        eventMapper.selectList(Wrappers.<Event>lambdaQuery()
+                        .select(Event::getId, Event::getTitle, Event::getSummary, Event::getStatus)
+                        .in(Event::getId, ids))
+                .forEach(event -> events.put(event.getId(), event));
+        for (String id : ids) {
+            Event event = events.get(id);
+            if (event == null) {
+                writer.deleteDocuments(new Term(FIELD_ID, id));
+            } else {
+                writer.updateDocument(new Term(FIELD_ID, id), toDocument(event));
+            }
+        }
+        searcherManager.maybeRefresh();
+    }
+
+    private static Document toDocument(Event event) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, event.getId(), Field.Store.YES));
+        document.add(new TextField(FIELD_TITLE, Objects.toString(event.getTitle(), ""), Field.Store.NO));
+        document.add(new TextField(FIELD_SUMMARY, Objects.toString(event.getSummary(), ""), Field.Store.NO));
+        if (event.getStatus() != null) {
+            document.add(new StringField(FIELD_STATUS, event.getStatus().getCode(), Field.Store.NO));
+        }
+        return document;
+    }
+
+    /* ---------------- 节点间同步 ---------------- */
+
+    /**
+     * 广播格式: nodeId|id1,id2,...，其他节点收到后各自从数据库重新读取
+     */
+    private void broadcast(Collection<String> ids) {
+        try {
+            getTopic().publish(NODE_ID + MESSAGE_SEPARATOR + String.join(",", ids));
+        } catch (Exception e) {
+            log.warn("Search index broadcast failed: {}", ids, e);
+        }
+    }
+
+    private void onMessage(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || NODE_ID.equals(message.substring(0, separator))) {
+            return;
+        }
+        List<String> ids = Arrays.stream(message.substring(separator + 1).split(","))
+                .filter(id -> !id.isEmpty())
+                .toList();
+        try {
+            reindex(ids);
+        } catch (Exception e) {
+            log.warn("Search index update by broadcast failed: {}", ids, e);
+        }
+    }
+
+    private RTopic getTopic() {
+        return redissonClient.getTopic("search:reindex:event", StringCodec.INSTANCE);
+    }
+
+    /* ---------------- 启动重建 ---------------- */
+
+    /**
+     * 先订阅广播再全量扫描，重建期间提交的修改会按ID再更新一次
+     * (扫描读到旧值后才写入的极少数事件可能保留旧值，下次修改或重启时修正)
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        getTopic().addListener(String.class, (channel, message) -> onMessage(message));
+        long start = System.currentTimeMillis();
+        long total = 0;
+        String lastId = null;
+        while (true) {
+            List<Event> batch = eventMapper.selectList(Wrappers.<Event>lambdaQuery()
+                    .select(Event::getId, Event::getTitle, Event::getSummary, Event::getStatus)
+                    .gt(lastId != null, Event::getId, lastId)
+                    .orderByAsc(Event::getId)
+                    .last("LIMIT " + REBUILD_BATCH_SIZE));
+            for (Event event : batch) {
+                writer.updateDocument(new Term(FIELD_ID, event.getId()), toDocument(event));
+            }
+            total += batch.size();
+            if (batch.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        searcherManager.maybeRefresh();
+        log.info("Search index rebuilt: events={} bytes={} cost={}ms",
+                total, directory.ramBytesUsed(), System.currentTimeMillis() - start);
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.warn("Search searcher release failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+}
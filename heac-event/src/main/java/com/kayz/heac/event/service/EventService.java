@@ -1,10 +1,39 @@
 package com.kayz.heac.event.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.kayz.heac.event.dto.CursorPage;
+import com.kayz.heac.event.dto.EventListItemVO;
 import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import com.kayz.heac.event.heat.HeatAction;
+import com.kayz.heac.event.transition.EventTransition;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface EventService extends IService<Event> {
 
+    /**
+     * 热榜单页最大条数
+     */
+    int MAX_HOT_PAGE_SIZE = 100;
+
+    /**
+     * 列表单页最大条数
+     */
+    int MAX_LIST_PAGE_SIZE = 100;
+
+    /**
+     * 批量发布 / 下架单次最多处理的事件数
+     */
+    int MAX_BATCH_SIZE = 500;
+
+    /**
+     * 搜索最多返回条数
+     */
+    int MAX_SEARCH_SIZE = 50;
+
     /**
      * 创建草稿
      *
@@ -13,11 +42,18 @@ public interface EventService extends IService<Event> {
      */
     String createDraft(Event event);
 
+    /**
+     * 草稿进入预热：到达开始时间后由调度器自动发布，到达结束时间后自动结束
+     *
+     * @param id 事件ID (开始时间必须晚于当前时间)
+     */
+    void scheduleEvent(String id);
+
     /**
      * 发布事件 (上线)
      * 1. 修改状态 -> PUBLISHED
-     * 2. 清缓存
-     * 3. 发 MQ
+     * 2. 提交后写穿缓存
+     * 3. 提交后异步发 MQ (不阻塞，失败由回调重试)
      *
      * @param id 事件ID
      */
@@ -30,6 +66,40 @@ public interface EventService extends IService<Event> {
      */
     void closeEvent(String id);
 
+    /**
+     * 批量发布：一次查询校验状态、一条 UPDATE 修改，提交后一次 Pipeline 写穿缓存，通知按 RocketMQ 批量消息发送
+     * <p>
+     * 全部成功或全部失败：任一事件不存在或状态不可发布时整批回滚
+     *
+     * @param ids 事件ID，最多 {@value #MAX_BATCH_SIZE} 个 (重复的ID只处理一次)
+     */
+    void publishEvents(List<String> ids);
+
+    /**
+     * 批量下架，语义同 {@link #publishEvents(List)}
+     *
+     * @param ids 事件ID，最多 {@value #MAX_BATCH_SIZE} 个
+     */
+    void closeEvents(List<String> ids);
+
+    /**
+     * 执行已到期的自动流转 (调度器调用)：一条带状态和时间条件的 UPDATE，提交后批量写穿缓存
+     * <p>
+     * 已不处于源状态 (如提前下架) 或到期时间被改晚的事件不会流转，重复调用没有副作用
+     *
+     * @param transition 流转类型
+     * @param ids        到期的事件ID
+     * @return 实际流转的事件数
+     */
+    int applyDueTransitions(EventTransition transition, Collection<String> ids);
+
+    /**
+     * 删除事件 (逻辑删除)，并写入空值缓存防止已删除ID穿透到数据库
+     *
+     * @param id 事件ID
+     */
+    void deleteEvent(String id);
+
     /**
      * 获取详情 (优先查缓存)
      *
@@ -37,4 +107,74 @@ public interface EventService extends IService<Event> {
      * @return 事件详情
      */
     Event getDetail(String id);
+
+    /**
+     * 获取对外可见的详情 (公开接口使用)：草稿和已下架的事件视为不存在
+     *
+     * @param id 事件ID
+     * @return 事件详情，不存在或不可见时返回 null
+     */
+    Event getPublicDetail(String id);
+
+    /**
+     * 本节点一级缓存中对外可见事件的版本号 (条件请求的快速路径，不读 Redis、不回源)
+     *
+     * @param id 事件ID
+     * @return 一级缓存未命中或事件不可见时返回 null，调用方应退回 {@link #getPublicDetail(String)}
+     */
+    Long getCachedVersion(String id);
+
+    /**
+     * 非阻塞获取详情 (等锁、回源都不占用调用方线程)
+     *
+     * @param id 事件ID
+     * @return 事件详情的 Future，不存在时结果为 null
+     */
+    CompletableFuture<Event> getDetailAsync(String id);
+
+    /**
+     * 批量获取详情 (列表页使用，走批量多级缓存)
+     *
+     * @param ids 事件ID列表
+     * @return 事件详情列表，顺序与入参一致，不存在的ID会被跳过
+     */
+    List<Event> getDetails(Collection<String> ids);
+
+    /**
+     * 热榜分页：从 Redis ZSET 按热度倒序取ID，再批量走多级缓存获取详情 (榜单本身不查数据库)
+     *
+     * @param offset 起始名次 (从 0 开始)
+     * @param limit  条数，最多 {@value #MAX_HOT_PAGE_SIZE}
+     * @return 进行中的事件，按热度倒序；heatScore 为当前时刻的衰减热度 (不是数据库中的累计热度)
+     */
+    List<EventListItemVO> listHot(long offset, int limit);
+
+    /**
+     * 全文搜索标题和摘要 (本地倒排索引，不查数据库)，结果批量走多级缓存
+     *
+     * @param keyword 关键词
+     * @param limit   条数，最多 {@value #MAX_SEARCH_SIZE}
+     * @return 预热中 / 进行中 / 已结束的事件，按相关度排序
+     */
+    List<Event> search(String keyword, int limit);
+
+    /**
+     * 记录一次会增加热度的用户行为 (只在内存中累加，定时批量落库)
+     *
+     * @param id     事件ID
+     * @param action 行为类型
+     */
+    void recordHeat(String id, HeatAction action);
+
+    /**
+     * 按状态分页列出事件 (开始时间倒序，没有开始时间的排在最后)
+     * <p>
+     * Keyset 分页：翻到任意深度代价都与第一页相同，翻页期间新增的事件也不会让后续页错位
+     *
+     * @param status 事件状态
+     * @param cursor 上一页返回的 nextCursor，第一页传 null
+     * @param limit  条数，最多 {@value #MAX_LIST_PAGE_SIZE}
+     * @return 当前页及下一页游标
+     */
+    CursorPage<EventListItemVO> listByStatus(EventStatus status, String cursor, int limit);
 }
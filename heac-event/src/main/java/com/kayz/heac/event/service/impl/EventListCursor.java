@@ -0,0 +1,59 @@
+package com.kayz.heac.event.service.impl;
+
+import com.kayz.heac.common.exception.EventException;
+import com.kayz.heac.event.dto.EventListItemVO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 事件列表的 Keyset 游标：上一页最后一条的 (start_time, id)
+ * <p>
+ * 列表按 start_time DESC, id DESC 排序，没有开始时间的事件 (草稿等) 排在最后按 id DESC。
+ * 编码为 Base64URL 的 "v1|开始时间|id"，开始时间为空表示已进入无开始时间的部分。
+ * 客户端只应原样传回，格式可以随版本号调整
+ */
+record EventListCursor(LocalDateTime startTime, String id) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    static EventListCursor after(EventListItemVO last) {
+        return new EventListCursor(last.getStartTime(), last.getId());
+    }
+
+    /**
+     * @return 上一页停在有开始时间的部分
+     */
+    boolean timed() {
+        return startTime != null;
+    }
+
+    String encode() {
+        String raw = VERSION + SEPARATOR + (startTime == null ? "" : startTime.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor 客户端传回的游标，为空表示第一页
+     * @return 第一页时返回 null
+     * @throws EventException 游标无法解析
+     */
+    static EventListCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0]) || parts[2].isEmpty()) {
+                throw new EventException("无效的分页游标");
+            }
+            return new EventListCursor(parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new EventException("无效的分页游标");
+        }
+    }
+}
@@ -1,29 +1,56 @@
 package com.kayz.heac.event.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.kayz.heac.common.exception.EventException;
 import com.kayz.heac.common.exception.EventStatusException;
 import com.kayz.heac.event.cache.EventCacheManager;
+import com.kayz.heac.event.dto.CursorPage;
+import com.kayz.heac.event.dto.EventListItemVO;
 import com.kayz.heac.event.dto.EventPublishDTO;
 import com.kayz.heac.event.entity.Event;
 import com.kayz.heac.event.enums.EventStatus;
+import com.kayz.heac.event.heat.HeatAction;
+import com.kayz.heac.event.heat.HeatIngestor;
 import com.kayz.heac.event.mapper.EventMapper;
+import com.kayz.heac.event.mq.EventPublishNotifier;
+import com.kayz.heac.event.rank.EventHotRank;
+import com.kayz.heac.event.search.EventSearchIndex;
 import com.kayz.heac.event.service.EventService;
+import com.kayz.heac.event.transition.EventTransition;
+import com.kayz.heac.event.transition.EventTransitionScheduler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.rocketmq.spring.core.RocketMQTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventServiceImpl extends ServiceImpl<EventMapper, Event> implements EventService {
 
+    private static final Set<EventStatus> PUBLISHABLE = EnumSet.of(EventStatus.DRAFT, EventStatus.WARMUP);
+    private static final Set<EventStatus> CLOSABLE =
+            EnumSet.of(EventStatus.DRAFT, EventStatus.WARMUP, EventStatus.PUBLISHED, EventStatus.ENDED);
+    /**
+     * 对外可见的状态：草稿和已下架的事件对公开接口表现为不存在
+     */
+    private static final Set<EventStatus> PUBLIC_STATUSES =
+            EnumSet.of(EventStatus.WARMUP, EventStatus.PUBLISHED, EventStatus.ENDED);
+
     private final EventCacheManager eventCacheManager;
-    private final RocketMQTemplate rocketMQTemplate;
+    private final EventPublishNotifier publishNotifier;
+    private final EventHotRank eventHotRank;
+    private final HeatIngestor heatIngestor;
+    private final EventTransitionScheduler transitionScheduler;
+    private final EventSearchIndex eventSearchIndex;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -32,10 +59,37 @@ public class EventServiceImpl extends ServiceImpl<EventMapper, Event> implements
         event.setStatus(EventStatus.DRAFT);
         event.setHeatScore(0L);
         this.save(event);
+        // 登记到布隆过滤器，否则新事件会被当作不存在的ID拦截
+        eventCacheManager.registerId(event.getId());
+        eventSearchIndex.reindexAfterCommit(List.of(event.getId()));
         log.info("创建事件草稿: {}", event.getId());
         return event.getId();
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void scheduleEvent(String id) {
+        Event event = this.getById(id);
+        if (event == null) {
+            throw new EventException("事件不存在");
+        }
+        if (event.getStatus() != EventStatus.DRAFT) {
+            throw new EventStatusException("当前状态不可预热");
+        }
+        if (event.getStartTime() == null || !event.getStartTime().isAfter(LocalDateTime.now())) {
+            throw new EventException("请先设置晚于当前时间的开始时间");
+        }
+
+        event.setStatus(EventStatus.WARMUP);
+        if (!this.updateById(event)) {
+            throw new EventStatusException("事件已被修改，请刷新后重试");
+        }
+        eventCacheManager.writeThroughAfterCommit(id, event);
+        transitionScheduler.scheduleAfterCommit(id, EventTransition.START, event.getStartTime());
+        eventSearchIndex.reindexAfterCommit(List.of(id));
+        log.info("事件进入预热: {} 开始时间 {}", id, event.getStartTime());
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void publishEvent(String id) throws EventException {
@@ -49,22 +103,22 @@ public class EventServiceImpl extends ServiceImpl<EventMapper, Event> implements
             throw new EventStatusException("当前状态不可发布");
         }
 
-        // 1. 更新 DB
+        // 1. 更新 DB (乐观锁，成功后 event.version 即为新版本号)
         event.setStatus(EventStatus.PUBLISHED);
         event.setStartTime(LocalDateTime.now());
-        this.updateById(event);
+        if (!this.updateById(event)) {
+            throw new EventStatusException("事件已被修改，请刷新后重试");
+        }
 
-        // 2. 清除缓存
-        eventCacheManager.invalidate(id);
+        // 2. 提交后写穿缓存：发布后的第一波流量直接命中缓存
+        eventCacheManager.writeThroughAfterCommit(id, event);
+        eventHotRank.addAfterCommit(id, event.getHeatScore() == null ? 0L : event.getHeatScore());
+        transitionScheduler.scheduleAfterCommit(id, EventTransition.END, event.getEndTime());
+        eventSearchIndex.reindexAfterCommit(List.of(id));
 
-        // 3. 发送 MQ (异步通知 Opinion 服务准备接客)
-        try {
-            EventPublishDTO msg = new EventPublishDTO(id, event.getTitle(), LocalDateTime.now());
-            rocketMQTemplate.convertAndSend("event-topic:publish", msg);
-            log.info("事件发布消息已发送: {}", id);
-        } catch (Exception e) {
-            log.error("MQ 发送失败，但不回滚事务", e);
-        }
+        // 3. 提交后异步发送 MQ (通知 Opinion 服务准备接客)，不占用事务，失败由回调重试
+        publishNotifier.publishAfterCommit(List.of(new EventPublishDTO(id, event.getTitle(), event.getStartTime())));
+        log.info("事件已发布: {}", id);
     }
 
     @Override
@@ -75,17 +129,267 @@ public class EventServiceImpl extends ServiceImpl<EventMapper, Event> implements
                 .eq(Event::getId, id)
                 .set(Event::getStatus, EventStatus.CLOSED)
                 .set(Event::getEndTime, LocalDateTime.now())
+                // 条件更新不经过乐观锁插件，手动递增版本号，缓存依赖它拒绝旧值覆盖
+                .setSql("version = version + 1")
                 .update();
 
         if (success) {
-            eventCacheManager.invalidate(id);
+            // 在事务内读回完整的新数据 (含新版本号)，提交后写穿缓存
+            Event closed = this.getById(id);
+            eventCacheManager.writeThroughAfterCommit(id, closed);
+            eventHotRank.removeAfterCommit(id);
+            eventSearchIndex.reindexAfterCommit(List.of(id));
             log.info("事件已下架: {}", id);
         }
     }
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void publishEvents(List<String> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> published = transitionAll(ids, PUBLISHABLE, EventStatus.PUBLISHED, "当前状态不可发布",
+                update -> update.set(Event::getStartTime, now));
+        if (published.isEmpty()) {
+            return;
+        }
+
+        // 同一事务内登记的写穿在提交后合并为一次 Pipeline
+        published.forEach(event -> eventCacheManager.writeThroughAfterCommit(event.getId(), event));
+        eventHotRank.addAllAfterCommit(published.stream().collect(Collectors.toMap(Event::getId,
+                event -> event.getHeatScore() == null ? 0L : event.getHeatScore())));
+        published.forEach(event -> transitionScheduler.scheduleAfterCommit(event.getId(), EventTransition.END, event.getEndTime()));
+        eventSearchIndex.reindexAfterCommit(published.stream().map(Event::getId).toList());
+
+        publishNotifier.publishAfterCommit(published.stream()
+                .map(event -> new EventPublishDTO(event.getId(), event.getTitle(), now))
+                .toList());
+        log.info("批量发布事件: {} 个", published.size());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void closeEvents(List<String> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> closed = transitionAll(ids, CLOSABLE, EventStatus.CLOSED, "当前状态不可下架",
+                update -> update.set(Event::getEndTime, now));
+        if (closed.isEmpty()) {
+            return;
+        }
+        closed.forEach(event -> eventCacheManager.writeThroughAfterCommit(event.getId(), event));
+        eventHotRank.removeAllAfterCommit(closed.stream().map(Event::getId).toList());
+        eventSearchIndex.reindexAfterCommit(closed.stream().map(Event::getId).toList());
+        log.info("批量下架事件: {} 个", closed.size());
+    }
+
+    /**
+     * 批量状态流转，与事件数无关的固定三次数据库往返：
+     * 一次查询校验存在性和当前状态，一条 UPDATE ... WHERE id IN (...) AND status IN (...)，一次查询读回新数据
+     * <p>
+     * UPDATE 带着状态条件执行，校验之后被并发修改的事件不会被更新，此时影响行数不足，整批回滚
+     *
+     * @param extraSet 除状态和版本号外要一并修改的字段
+     * @return 流转后的完整数据 (含新版本号)，用于提交后写穿缓存
+     */
+    private List<Event> transitionAll(List<String> ids, Set<EventStatus> from, EventStatus to, String rejectMessage,
+                                      Consumer<LambdaUpdateWrapper<Event>> extraSet) {
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new EventException("单次最多处理 " + MAX_BATCH_SIZE + " 个事件");
+        }
+
+        Map<String, EventStatus> current = this.lambdaQuery()
+                .select(Event::getId, Event::getStatus)
+                .in(Event::getId, distinctIds)
+                .list()
+                .stream()
+                .collect(Collectors.toMap(Event::getId, Event::getStatus));
+        List<String> missing = distinctIds.stream().filter(id -> !current.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new EventException("事件不存在: " + missing);
+        }
+        List<String> rejected = distinctIds.stream().filter(id -> !from.contains(current.get(id))).toList();
+        if (!rejected.isEmpty()) {
+            throw new EventStatusException(rejectMessage + ": " + rejected);
+        }
+
+        LambdaUpdateWrapper<Event> update = Wrappers.<Event>lambdaUpdate()
+                .in(Event::getId, distinctIds)
+                .in(Event::getStatus, from)
+                .set(Event::getStatus, to)
+                // 条件更新不经过乐观锁插件，手动递增版本号，缓存依赖它拒绝旧值覆盖
+                .setSql("version = version + 1");
+        extraSet.accept(update);
+        if (baseMapper.update(null, update) != distinctIds.size()) {
+            throw new EventStatusException("部分事件已被修改，请刷新后重试");
+        }
+        return this.listByIds(distinctIds);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int applyDueTransitions(EventTransition transition, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int changed = baseMapper.update(null, Wrappers.<Event>lambdaUpdate()
+                .in(Event::getId, ids)
+                .eq(Event::getStatus, transition.getFrom())
+                // 登记之后到期时间可能被改晚，未到期的不流转
+                .le(transition.getDueColumn(), LocalDateTime.now())
+                .set(Event::getStatus, transition.getTo())
+                .setSql("version = version + 1"));
+        if (changed == 0) {
+            return 0;
+        }
+
+        // 读回处于目标状态的完整数据 (含新版本号)，提交后合并为一次 Pipeline 写穿
+        List<Event> events = this.lambdaQuery()
+                .in(Event::getId, ids)
+                .eq(Event::getStatus, transition.getTo())
+                .list();
+        events.forEach(event -> eventCacheManager.writeThroughAfterCommit(event.getId(), event));
+        eventSearchIndex.reindexAfterCommit(events.stream().map(Event::getId).toList());
+        if (transition == EventTransition.START) {
+            eventHotRank.addAllAfterCommit(events.stream().collect(Collectors.toMap(Event::getId,
+                    event -> event.getHeatScore() == null ? 0L : event.getHeatScore())));
+            events.forEach(event -> transitionScheduler.scheduleAfterCommit(event.getId(), EventTransition.END, event.getEndTime()));
+            publishNotifier.publishAfterCommit(events.stream()
+                    .map(event -> new EventPublishDTO(event.getId(), event.getTitle(), event.getStartTime()))
+                    .toList());
+        } else {
+            eventHotRank.removeAllAfterCommit(events.stream().map(Event::getId).toList());
+        }
+        return changed;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteEvent(String id) {
+        if (this.removeById(id)) {
+            // 提交后再写空值占位，避免并发读者在提交前把旧数据写回缓存
+            eventCacheManager.invalidateAsAbsentAfterCommit(id);
+            eventHotRank.removeAfterCommit(id);
+            eventSearchIndex.reindexAfterCommit(List.of(id));
+            log.info("事件已删除: {}", id);
+        }
+    }
+
     @Override
     public Event getDetail(String id) {
         // 走多级缓存
         return eventCacheManager.get(id);
     }
+
+    @Override
+    public Event getPublicDetail(String id) {
+        Event event = eventCacheManager.get(id);
+        return event != null && isPublic(event) ? event : null;
+    }
+
+    @Override
+    public Long getCachedVersion(String id) {
+        Event cached = eventCacheManager.peekLocal(id);
+        // 不可见的事件不走快速路径，由 getPublicDetail 返回 404
+        if (cached == null || !isPublic(cached) || cached.getVersion() == null) {
+            return null;
+        }
+        return cached.getVersion().longValue();
+    }
+
+    private static boolean isPublic(Event event) {
+        return PUBLIC_STATUSES.contains(event.getStatus());
+    }
+
+    private static EventListItemVO toListItem(Event event, long heatScore) {
+        EventListItemVO item = new EventListItemVO();
+        item.setId(event.getId());
+        item.setTitle(event.getTitle());
+        item.setCoverImg(event.getCoverImg());
+        item.setStatus(event.getStatus());
+        item.setHeatScore(heatScore);
+        item.setStartTime(event.getStartTime());
+        item.setEndTime(event.getEndTime());
+        return item;
+    }
+
+    @Override
+    public CompletableFuture<Event> getDetailAsync(String id) {
+        return eventCacheManager.getAsync(id);
+    }
+
+    @Override
+    public List<Event> getDetails(Collection<String> ids) {
+        // 批量走多级缓存：L1 批量命中 -> Redis MGET -> DB 批量查询
+        return new ArrayList<>(eventCacheManager.getAll(ids).values());
+    }
+
+    @Override
+    public List<EventListItemVO> listHot(long offset, int limit) {
+        Map<String, Double> heats = eventHotRank.page(offset, Math.min(limit, MAX_HOT_PAGE_SIZE));
+        if (heats.isEmpty()) {
+            return List.of();
+        }
+        // getAll 按入参顺序返回，即热度倒序
+        List<EventListItemVO> hot = new ArrayList<>(heats.size());
+        List<String> stale = new ArrayList<>();
+        eventCacheManager.getAll(heats.keySet()).forEach((id, event) -> {
+            if (event.getStatus() == EventStatus.PUBLISHED) {
+                // 缓存中的实体可能是共享实例，展示热度放在列表项上，不回写实体
+                hot.add(toListItem(event, Math.round(heats.get(id))));
+            } else {
+                stale.add(id);
+            }
+        });
+        if (!stale.isEmpty()) {
+            // 提交后下榜失败 (Redis 短暂不可用) 或重建期间并发下架留下的残留，顺手清理
+            log.info("热榜移除非进行中事件: {}", stale);
+            eventHotRank.remove(stale);
+        }
+        return hot;
+    }
+
+    @Override
+    public List<Event> search(String keyword, int limit) {
+        List<String> ids = eventSearchIndex.search(keyword, Math.min(limit, MAX_SEARCH_SIZE));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // getAll 按入参顺序返回，即相关度顺序；索引与缓存之间短暂不一致时以缓存中的状态为准
+        return eventCacheManager.getAll(ids).values().stream()
+                .filter(EventServiceImpl::isPublic)
+                .toList();
+    }
+
+    @Override
+    public void recordHeat(String id, HeatAction action) {
+        heatIngestor.record(id, action);
+    }
+
+    @Override
+    public CursorPage<EventListItemVO> listByStatus(EventStatus status, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIST_PAGE_SIZE));
+        EventListCursor after = EventListCursor.decode(cursor);
+
+        // 多查一条用来判断是否还有下一页
+        List<EventListItemVO> items = new ArrayList<>(pageSize + 1);
+        if (after == null || after.timed()) {
+            items.addAll(baseMapper.listTimedByStatus(status,
+                    after == null ? null : after.startTime(), after == null ? null : after.id(), pageSize + 1));
+        }
+        if (items.size() <= pageSize) {
+            // 有开始时间的部分已经取完，接着取没有开始时间的部分
+            String afterId = after != null && !after.timed() ? after.id() : null;
+            items.addAll(baseMapper.listUntimedByStatus(status, afterId, pageSize + 1 - items.size()));
+        }
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? EventListCursor.after(items.get(items.size() - 1)).encode() : null;
+        return CursorPage.of(items, nextCursor, hasMore);
+    }
 }
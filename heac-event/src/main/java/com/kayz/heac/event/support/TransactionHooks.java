@@ -0,0 +1,53 @@
+package com.kayz.heac.event.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务提交后执行的统一入口：在事务中时注册到提交回调，不在事务中 (没有活动的事务同步) 时立即执行
+ * <p>
+ * 回调在提交完成之后运行，抛出的异常不会回滚事务，只会抛给提交方，所以 action 应自行捕获并记录异常
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+        throw new UnsupportedOperationException("TransactionHooks is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * 当前线程是否有活动的事务同步
+     */
+    public static boolean inTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    /**
+     * 事务提交后执行；回滚时丢弃；不在事务中立即执行
+     */
+    public static void afterCommit(Runnable action) {
+        afterCommit(action, null);
+    }
+
+    /**
+     * 事务提交后执行 action，事务结束 (提交或回滚) 后执行 cleanup；不在事务中立即执行 action，不执行 cleanup
+     */
+    public static void afterCommit(Runnable action, Runnable cleanup) {
+        if (!inTransaction()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (cleanup != null) {
+                    cleanup.run();
+                }
+            }
+        });
+    }
+}
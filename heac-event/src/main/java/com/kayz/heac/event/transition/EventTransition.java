@@ -0,0 +1,29 @@
+package com.kayz.heac.event.transition;
+
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 按时间自动发生的状态流转
+ */
+@Getter
+@AllArgsConstructor
+public enum EventTransition {
+
+    // 预热 -> 进行中：到达开始时间
+    START(EventStatus.WARMUP, EventStatus.PUBLISHED, Event::getStartTime),
+    // 进行中 -> 已结束：到达结束时间
+    END(EventStatus.PUBLISHED, EventStatus.ENDED, Event::getEndTime);
+
+    private final EventStatus from;
+    private final EventStatus to;
+    /**
+     * 决定到期时间的字段
+     */
+    private final SFunction<Event, LocalDateTime> dueColumn;
+}
@@ -0,0 +1,30 @@
+package com.kayz.heac.event.transition;
+
+import com.kayz.heac.event.dto.EventTransitionDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.annotation.RocketMQMessageListener;
+import org.apache.rocketmq.spring.core.RocketMQListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 状态流转延迟消息的接力：集群消费，每条消息只落到一个节点
+ */
+@Slf4j
+@RocketMQMessageListener(
+        topic = "event-topic",
+        consumerGroup = "heac-event-transition-group",
+        selectorExpression = "transition"
+)
+@Component
+@RequiredArgsConstructor
+public class EventTransitionConsumer implements RocketMQListener<EventTransitionDTO> {
+
+    private final EventTransitionScheduler scheduler;
+
+    @Override
+    public void onMessage(EventTransitionDTO msg) {
+        log.debug("Transition message: {} {} dueAt={}", msg.getEventId(), msg.getTransition(), msg.getDueAt());
+        scheduler.onDelayedMessage(msg);
+    }
+}
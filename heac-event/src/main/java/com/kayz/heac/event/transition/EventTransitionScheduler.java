@@ -0,0 +1,470 @@
+package com.kayz.heac.event.transition;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.kayz.heac.event.config.TransitionProperties;
+import com.kayz.heac.event.dto.EventTransitionDTO;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.mapper.EventMapper;
+import com.kayz.heac.event.service.EventService;
+import com.kayz.heac.event.support.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.rocketmq.spring.core.RocketMQTemplate;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static com.kayz.heac.common.consts.RedisPrefix.EVENT_TRANSITION_BOOTSTRAP_KEY;
+import static com.kayz.heac.common.consts.RedisPrefix.EVENT_TRANSITION_SWEEP_LOCK;
+
+/**
+ * 事件状态自动流转 (预热 -> 进行中 -> 已结束)，不轮询数据库
+ * <ul>
+ *     <li>horizon 内到期的流转放入本地 HashedWheelTimer，加入 / 取消 O(1)，到期误差不超过一个 tick</li>
+ *     <li>更远的流转发送 RocketMQ 延迟消息，按不超过剩余时间的最大延迟级别接力，直到进入 horizon 后落到消费节点的时间轮；
+ *     调度保存在 Broker 中，重启不丢，并随集群消费分散到各节点</li>
+ *     <li>同一时刻到期的流转合并为一条带状态和时间条件的 UPDATE (重复触发、提前下架、时间被改晚都不会误流转)，
+ *     提交后批量写穿缓存并更新热榜</li>
+ *     <li>启动时加载 horizon 内 (含已过期) 的流转：补上宕机节点时间轮中丢失的任务。首次上线时额外为更远的流转补发一次延迟消息</li>
+ *     <li>低频兜底扫描 (见 {@link #sweepOverdue()})：捞出已过期仍未流转的事件 (时间轮满、延迟消息丢失、节点宕机后未重启等)</li>
+ * </ul>
+ * 需要索引：(status, start_time) / (status, end_time) WHERE deleted = 0
+ */
+@Slf4j
+@Component
+public class EventTransitionScheduler {
+
+    static final String TRANSITION_DESTINATION = "event-topic:transition";
+
+    /**
+     * Broker 默认的 messageDelayLevel：1s 5s 10s 30s 1m 2m 3m 4m 5m 6m 7m 8m 9m 10m 20m 30m 1h 2h (下标 + 1 即延迟级别)
+     */
+    private static final long[] DELAY_LEVEL_MILLIS = {
+            1_000, 5_000, 10_000, 30_000,
+            60_000, 120_000, 180_000, 240_000, 300_000, 360_000, 420_000, 480_000, 540_000, 600_000,
+            1_200_000, 1_800_000, 3_600_000, 7_200_000
+    };
+    private static final long SEND_TIMEOUT_MILLIS = 3_000;
+    /**
+     * 流转执行失败 (数据库不可用) 后多久重试
+     */
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    /**
+     * 兜底扫描只处理过期超过该时长的事件，刚到期的留给时间轮，避免同一时刻重复执行
+     */
+    private static final long SWEEP_GRACE_MILLIS = 30_000;
+
+    private final EventService eventService;
+    private final EventMapper eventMapper;
+    private final RocketMQTemplate rocketMQTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedissonClient redissonClient;
+    private final TransitionProperties properties;
+    private final Executor transitionExecutor;
+
+    private final HashedWheelTimer wheel;
+    /**
+     * 事件ID:流转 -> 时间轮任务，同一事件的同一流转只保留最新的到期时间
+     */
+    private final ConcurrentMap<String, Timeout> timeouts = new ConcurrentHashMap<>();
+    private final Queue<DueTask> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean firing = new AtomicBoolean();
+
+    private final Counter scheduled;
+    private final Counter deferred;
+    private final Counter fired;
+    private final Counter failures;
+    private final Counter dropped;
+    private final Counter swept;
+
+    public EventTransitionScheduler(@Lazy EventService eventService,
+                                    EventMapper eventMapper,
+                                    RocketMQTemplate rocketMQTemplate,
+                                    StringRedisTemplate stringRedisTemplate,
+                                    RedissonClient redissonClient,
+                                    TransitionProperties properties,
+                                    @Qualifier("transitionExecutor") Executor transitionExecutor,
+                                    MeterRegistry meterRegistry) {
+        this.eventService = eventService;
+        this.eventMapper = eventMapper;
+        this.rocketMQTemplate = rocketMQTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redissonClient = redissonClient;
+        this.properties = properties;
+        this.transitionExecutor = transitionExecutor;
+        this.wheel = new HashedWheelTimer(new DefaultThreadFactory("event-transition-wheel", true),
+                properties.getTickDuration().toMillis(), TimeUnit.MILLISECONDS, properties.getTicksPerWheel());
+        this.scheduled = Counter.builder("heac.transition.scheduled")
+                .description("Transitions put into the local timing wheel")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("heac.transition.deferred")
+                .description("Transitions handed to RocketMQ delayed messages")
+                .register(meterRegistry);
+        this.fired = Counter.builder("heac.transition.fired")
+                .description("Events whose status was changed by the scheduler")
+                .register(meterRegistry);
+        this.failures = Counter.builder("heac.transition.failures")
+                .description("Transition batches that failed and were rescheduled")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("heac.transition.dropped")
+                .description("Transitions not scheduled because the timing wheel was full")
+                .register(meterRegistry);
+        this.swept = Counter.builder("heac.transition.swept")
+                .description("Overdue transitions picked up by the periodic sweep")
+                .register(meterRegistry);
+        Gauge.builder("heac.transition.pending", timeouts, Map::size)
+                .description("Transitions waiting in the local timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 登记一次流转：horizon 内放入本地时间轮，否则发送延迟消息
+     *
+     * @param dueTime 到期时间，为空时忽略
+     */
+    public void schedule(String eventId, EventTransition transition, LocalDateTime dueTime) {
+        if (!properties.isEnabled() || dueTime == null) {
+            return;
+        }
+        schedule(new EventTransitionDTO(eventId, transition, dueTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    /**
+     * 事务提交后登记 (无事务时立即执行)；失败只记录日志，由启动加载兜底
+     */
+    public void scheduleAfterCommit(String eventId, EventTransition transition, LocalDateTime dueTime) {
+        TransactionHooks.afterCommit(() -> {
+            try {
+                schedule(eventId, transition, dueTime);
+            } catch (Exception e) {
+                log.warn("Transition schedule failed: {} {}", eventId, transition, e);
+            }
+        });
+    }
+
+    /**
+     * 延迟消息到达 (由 {@link EventTransitionConsumer} 调用)：仍在 horizon 外则继续接力
+     */
+    void onDelayedMessage(EventTransitionDTO message) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        schedule(message);
+    }
+
+    private void schedule(EventTransitionDTO transition) {
+        long remaining = transition.getDueAt() - System.currentTimeMillis();
+        if (remaining > properties.getHorizon().toMillis()) {
+            int level = delayLevel(remaining);
+            if (level > 0) {
+                sendDelayed(transition, level);
+                return;
+            }
+        }
+        addToWheel(transition.getEventId(), transition.getTransition(), transition.getDueAt());
+    }
+
+    /**
+     * 不超过剩余时间的最大延迟级别，剩余不足 1 秒时返回 0
+     */
+    private static int delayLevel(long remainingMillis) {
+        for (int i = DELAY_LEVEL_MILLIS.length - 1; i >= 0; i--) {
+            if (DELAY_LEVEL_MILLIS[i] <= remainingMillis) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private void sendDelayed(EventTransitionDTO transition, int level) {
+        try {
+            rocketMQTemplate.syncSend(TRANSITION_DESTINATION, MessageBuilder.withPayload(transition).build(),
+                    SEND_TIMEOUT_MILLIS, level);
+            deferred.increment();
+        } catch (Exception e) {
+            // MQ 不可用：退化为本地时间轮 (进程存活期间有效，重启后由启动加载在进入 horizon 时补上)
+            log.warn("Transition delayed message failed, keep in local wheel: {} {}",
+                    transition.getEventId(), transition.getTransition(), e);
+            addToWheel(transition.getEventId(), transition.getTransition(), transition.getDueAt());
+        }
+    }
+
+    private void addToWheel(String eventId, EventTransition transition, long dueAt) {
+        String key = eventId + ":" + transition.name();
+        if (timeouts.size() >= properties.getMaxPending() && !timeouts.containsKey(key)) {
+            dropped.increment();
+            log.warn("Transition wheel full, dropped: {}", key);
+            return;
+        }
+        long delay = Math.max(0, dueAt - System.currentTimeMillis());
+        timeouts.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired() && !existing.isCancelled()) {
+                if (((DueTask) existing.task()).dueAt == dueAt) {
+                    // 启动加载和延迟消息可能重复登记同一个流转
+                    return existing;
+                }
+                existing.cancel();
+            }
+            scheduled.increment();
+            return wheel.newTimeout(new DueTask(key, eventId, transition, dueAt), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * 到期任务在时间轮工作线程上只入队，批量执行交给 transitionExecutor，不阻塞后续 tick
+     */
+    private void onDue(DueTask task) {
+        ready.add(task);
+        startFiring();
+    }
+
+    /**
+     * 提交一次批量执行 (同一时间只有一个在执行或排队)；线程池拒绝时任务留在队列中，由下一次到期或兜底扫描再提交
+     */
+    private void startFiring() {
+        if (ready.isEmpty() || !firing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            transitionExecutor.execute(this::fireReady);
+        } catch (RejectedExecutionException e) {
+            firing.set(false);
+            log.warn("Transition executor rejected, {} due transitions wait for the next trigger", ready.size());
+        }
+    }
+
+    private void fireReady() {
+        try {
+            while (!ready.isEmpty()) {
+                Map<EventTransition, List<String>> batch = new EnumMap<>(EventTransition.class);
+                DueTask task;
+                int size = 0;
+                while (size < properties.getBatchSize() && (task = ready.poll()) != null) {
+                    batch.computeIfAbsent(task.transition, t -> new ArrayList<>()).add(task.eventId);
+                    size++;
+                }
+                batch.forEach(this::fire);
+            }
+        } finally {
+            firing.set(false);
+            // 释放标记与入队之间到达的任务
+            startFiring();
+        }
+    }
+
+    private void fire(EventTransition transition, List<String> ids) {
+        try {
+            int changed = eventService.applyDueTransitions(transition, ids);
+            fired.increment(changed);
+            log.info("Event transition {}: due={} changed={}", transition, ids.size(), changed);
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Event transition {} failed, retry in {}ms: {}", transition, RETRY_DELAY_MILLIS, ids, e);
+            long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+            ids.forEach(id -> addToWheel(id, transition, retryAt));
+        }
+    }
+
+    /**
+     * 启动加载：horizon 内 (含停机期间已过期) 的流转放入本节点时间轮。
+     * 多个节点会加载到相同的流转，执行时的状态条件保证只生效一次
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime horizonEnd = LocalDateTime.now().plus(properties.getHorizon());
+        try {
+            for (EventTransition transition : EventTransition.values()) {
+                scan(transition, null, horizonEnd,
+                        event -> schedule(event.getId(), transition, transition.getDueColumn().apply(event)));
+            }
+            log.info("Event transitions loaded: pending={}", timeouts.size());
+            bootstrapIfAbsent(horizonEnd);
+        } catch (Exception e) {
+            // 不影响启动，已登记的延迟消息照常投递
+            log.error("Event transition load failed", e);
+        }
+    }
+
+    /**
+     * 兜底扫描 (由 {@link com.kayz.heac.event.job.TransitionSweepJob} 低频触发，集群内同一时刻只有一个节点执行)：
+     * 到期时间早于 now - grace 却仍处于 from 状态的事件直接放入时间轮立即执行。
+     * 走 (status, start_time) / (status, end_time) 索引，正常情况下结果为空
+     *
+     * @return 本次捞出的流转数，未拿到锁时为 0
+     */
+    public long sweepOverdue() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        // 上次被线程池拒绝后留在队列中的任务
+        startFiring();
+        RLock lock = redissonClient.getLock("lock:" + EVENT_TRANSITION_SWEEP_LOCK);
+        if (!lock.tryLock()) {
+            return 0;
+        }
+        try {
+            LocalDateTime overdueBefore = LocalDateTime.now().minus(Duration.ofMillis(SWEEP_GRACE_MILLIS));
+            long[] count = {0};
+            for (EventTransition transition : EventTransition.values()) {
+                scan(transition, null, overdueBefore, event -> {
+                    schedule(event.getId(), transition, transition.getDueColumn().apply(event));
+                    count[0]++;
+                });
+            }
+            if (count[0] > 0) {
+                swept.increment(count[0]);
+                log.warn("Overdue event transitions swept: {}", count[0]);
+            }
+            return count[0];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 重新为 horizon 外的流转补发延迟消息：清除集群的首次上线标记后重新执行补发
+     * (Broker 延迟消息丢失、或 Redis 恢复自旧快照后标记仍在但消息已不存在时使用，见 heactransition 端点)
+     *
+     * @return 是否执行了补发 (其他节点正在补发时返回 false)
+     */
+    public boolean rebootstrap() {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        stringRedisTemplate.delete(EVENT_TRANSITION_BOOTSTRAP_KEY);
+        return bootstrapIfAbsent(LocalDateTime.now().plus(properties.getHorizon()));
+    }
+
+    /**
+     * 运行状态 (heactransition 端点)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("pending", timeouts.size());
+        stats.put("ready", ready.size());
+        stats.put("scheduled", (long) scheduled.count());
+        stats.put("deferred", (long) deferred.count());
+        stats.put("fired", (long) fired.count());
+        stats.put("failures", (long) failures.count());
+        stats.put("dropped", (long) dropped.count());
+        stats.put("swept", (long) swept.count());
+        stats.put("bootstrappedAt", stringRedisTemplate.opsForValue().get(EVENT_TRANSITION_BOOTSTRAP_KEY));
+        return stats;
+    }
+
+    /**
+     * 首次上线 (或 Redis 标记丢失) 时为 horizon 外的流转补发延迟消息，集群内只执行一次。
+     * 标记丢失导致重复补发时，同一流转会被多次触发，由状态条件去重。
+     * 标记永久有效；需要重新补发时通过 {@link #rebootstrap()} 清除后重跑
+     *
+     * @return 是否执行了补发
+     */
+    private boolean bootstrapIfAbsent(LocalDateTime horizonEnd) {
+        if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(EVENT_TRANSITION_BOOTSTRAP_KEY))) {
+            return false;
+        }
+        RLock lock = redissonClient.getLock("lock:" + EVENT_TRANSITION_BOOTSTRAP_KEY);
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(EVENT_TRANSITION_BOOTSTRAP_KEY))) {
+                return false;
+            }
+            long total = 0;
+            for (EventTransition transition : EventTransition.values()) {
+                long[] count = {0};
+                scan(transition, horizonEnd, null, event -> {
+                    schedule(event.getId(), transition, transition.getDueColumn().apply(event));
+                    count[0]++;
+                });
+                total += count[0];
+            }
+            stringRedisTemplate.opsForValue().set(EVENT_TRANSITION_BOOTSTRAP_KEY, String.valueOf(System.currentTimeMillis()));
+            log.info("Event transitions bootstrapped: deferred={}", total);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按ID Keyset 扫描处于 from 状态、到期时间在 (after, until] 内的事件
+     */
+    private void scan(EventTransition transition, LocalDateTime after, LocalDateTime until, Consumer<Event> consumer) {
+        String lastId = null;
+        while (true) {
+            List<Event> batch = eventMapper.selectList(Wrappers.<Event>lambdaQuery()
+                    .select(Event::getId, transition.getDueColumn())
+                    .eq(Event::getStatus, transition.getFrom())
+                    .isNotNull(transition.getDueColumn())
+                    .gt(after != null, transition.getDueColumn(), after)
+                    .le(until != null, transition.getDueColumn(), until)
+                    .gt(lastId != null, Event::getId, lastId)
+                    .orderByAsc(Event::getId)
+                    .last("LIMIT " + LOAD_BATCH_SIZE));
+            batch.forEach(consumer);
+            if (batch.size() < LOAD_BATCH_SIZE) {
+                return;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 未到期的任务随进程丢弃，下次启动时重新加载
+        wheel.stop();
+    }
+
+    private final class DueTask implements TimerTask {
+        final String key;
+        final String eventId;
+        final EventTransition transition;
+        final long dueAt;
+
+        DueTask(String key, String eventId, EventTransition transition, long dueAt) {
+            this.key = key;
+            this.eventId = eventId;
+            this.transition = transition;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            timeouts.remove(key, timeout);
+            onDue(this);
+        }
+    }
+}
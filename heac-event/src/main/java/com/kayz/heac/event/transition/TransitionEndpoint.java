@@ -0,0 +1,31 @@
+package com.kayz.heac.event.transition;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 状态流转端点：GET /actuator/heactransition 查看时间轮积压和计数；
+ * POST /actuator/heactransition 清除首次上线标记并为 horizon 外的流转重新补发延迟消息
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "heactransition")
+public class TransitionEndpoint {
+
+    private final EventTransitionScheduler transitionScheduler;
+
+    @ReadOperation
+    public Map<String, Object> transition() {
+        return transitionScheduler.getStats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebootstrap() {
+        return Map.of("rebootstrapped", transitionScheduler.rebootstrap());
+    }
+}
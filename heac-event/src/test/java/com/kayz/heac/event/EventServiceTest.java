@@ -9,6 +9,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @Slf4j
@@ -93,4 +95,17 @@ class EventServiceTest {
         Event cachedEvent = eventService.getDetail(eventId);
         assertEquals(EventStatus.CLOSED, cachedEvent.getStatus(), "下架后缓存应该被清除并重新加载为 CLOSED 状态");
     }
+
+    @Test
+    @Order(4)
+    @DisplayName("4. 批量缓存测试：验证 getAll 合并多级缓存并跳过不存在的ID")
+    void testBatchDetail() {
+        List<Event> events = eventService.getDetails(List.of(eventId, "NOT_EXIST_EVENT_ID", eventId));
+        assertEquals(1, events.size(), "不存在的ID应被跳过，重复ID应被去重");
+        assertEquals(eventId, events.get(0).getId());
+
+        // 第二次批量读取应全部命中一级缓存
+        List<Event> cached = eventService.getDetails(List.of(eventId));
+        assertEquals(EventStatus.CLOSED, cached.get(0).getStatus());
+    }
 }
@@ -0,0 +1,88 @@
+package com.kayz.heac.event.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotKeyDetectorTest {
+
+    @Test
+    @DisplayName("1. 窗口内达到阈值才算热点")
+    void threshold() {
+        HotKeyDetector detector = new HotKeyDetector(1024, 4, Duration.ofMinutes(1), 10, 10);
+
+        record(detector, "hot", 10);
+        record(detector, "warm", 9);
+
+        List<HotKey> hot = detector.hotKeys(10);
+        assertEquals(1, hot.size());
+        assertEquals("hot", hot.get(0).getId());
+        // Sketch 只会高估
+        assertTrue(hot.get(0).getEstimate() >= 10);
+    }
+
+    @Test
+    @DisplayName("2. 按估算次数倒序，并受 limit 约束")
+    void orderAndLimit() {
+        HotKeyDetector detector = new HotKeyDetector(1024, 4, Duration.ofMinutes(1), 5, 10);
+
+        record(detector, "a", 5);
+        record(detector, "b", 50);
+        record(detector, "c", 20);
+
+        List<HotKey> hot = detector.hotKeys(2);
+        assertEquals(List.of("b", "c"), hot.stream().map(HotKey::getId).toList());
+    }
+
+    @Test
+    @DisplayName("3. 候选集有上限，后来的 Key 不会挤掉已有候选")
+    void candidateCap() {
+        // maxHotKeys = 1 -> 候选集上限 4
+        HotKeyDetector detector = new HotKeyDetector(1024, 4, Duration.ofMinutes(1), 1, 1);
+
+        for (int i = 0; i < 10; i++) {
+            record(detector, "k" + i, 1);
+        }
+
+        assertEquals(4, detector.hotKeys(100).size());
+    }
+
+    @Test
+    @DisplayName("4. 超过两个窗口没有访问后热点失效")
+    void expiresAfterWindow() throws InterruptedException {
+        Duration window = Duration.ofMillis(50);
+        HotKeyDetector detector = new HotKeyDetector(1024, 4, window, 10, 10);
+
+        record(detector, "hot", 20);
+        assertEquals(1, detector.hotKeys(10).size());
+
+        Thread.sleep(window.multipliedBy(3).toMillis());
+
+        assertTrue(detector.hotKeys(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("5. 刚滚动窗口时上一窗口的计数仍按比例计入")
+    void previousWindowCounts() throws InterruptedException {
+        Duration window = Duration.ofMillis(200);
+        HotKeyDetector detector = new HotKeyDetector(1024, 4, window, 10, 10);
+
+        record(detector, "hot", 100);
+        // 进入下一窗口的开头，上一窗口的 100 次仍有较大权重
+        Thread.sleep(window.plusMillis(20).toMillis());
+
+        List<HotKey> hot = detector.hotKeys(10);
+        assertEquals(1, hot.size());
+        assertTrue(hot.get(0).getEstimate() < 100);
+    }
+
+    private static void record(HotKeyDetector detector, String id, int times) {
+        for (int i = 0; i < times; i++) {
+            detector.record(id);
+        }
+    }
+}
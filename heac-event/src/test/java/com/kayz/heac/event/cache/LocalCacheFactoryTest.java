@@ -0,0 +1,96 @@
+package com.kayz.heac.event.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.entity.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalCacheFactoryTest {
+
+    private MultiLevelCacheProperties.Local config;
+    private LocalCacheFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        config = new MultiLevelCacheProperties.Local();
+        config.setMaxBytes(DataSize.ofMegabytes(64));
+        factory = new LocalCacheFactory(config);
+    }
+
+    @Test
+    @DisplayName("1. 单个缓存独占全部预算，新增缓存后按 weight 重新分摊")
+    void rebalanceByWeight() {
+        config.getCaches().put("b", spec(3, null));
+
+        Cache<String, Object> a = factory.create("a", Event.class, e -> 100);
+        assertEquals(DataSize.ofMegabytes(64).toBytes(), maximumOf(a));
+
+        Cache<String, Object> b = factory.create("b", Event.class, e -> 100);
+        assertEquals(DataSize.ofMegabytes(16).toBytes(), maximumOf(a));
+        assertEquals(DataSize.ofMegabytes(48).toBytes(), maximumOf(b));
+    }
+
+    @Test
+    @DisplayName("2. 固定预算先从总预算中扣除")
+    void fixedBudgetIsReserved() {
+        config.getCaches().put("fixed", spec(1, DataSize.ofMegabytes(24)));
+
+        Cache<String, Object> shared = factory.create("shared", Event.class, e -> 100);
+        Cache<String, Object> fixed = factory.create("fixed", Event.class, e -> 100);
+
+        assertEquals(DataSize.ofMegabytes(24).toBytes(), maximumOf(fixed));
+        assertEquals(DataSize.ofMegabytes(40).toBytes(), maximumOf(shared));
+    }
+
+    @Test
+    @DisplayName("3. 空值缓存和热点缓存使用默认固定预算，并计入总预算")
+    void nullAndHotCachesJoinBudget() {
+        Cache<String, Object> event = factory.create("event", Event.class, e -> 100);
+        Cache<String, Boolean> nulls = factory.createNullValueCache("event", Duration.ofSeconds(60), DataSize.ofMegabytes(2));
+        Cache<String, Object> hot = factory.createHotCache("event", Event.class, e -> 100,
+                Duration.ofMinutes(10), DataSize.ofMegabytes(4));
+
+        assertEquals(DataSize.ofMegabytes(2).toBytes(), maximumOf(nulls));
+        assertEquals(DataSize.ofMegabytes(4).toBytes(), maximumOf(hot));
+        assertEquals(DataSize.ofMegabytes(58).toBytes(), maximumOf(event));
+    }
+
+    @Test
+    @DisplayName("4. 配置中的 <名称>-null / <名称>-hot 覆盖默认预算")
+    void configuredSpecOverridesDefault() {
+        config.getCaches().put("event-hot", spec(1, DataSize.ofMegabytes(8)));
+
+        Cache<String, Object> event = factory.create("event", Event.class, e -> 100);
+        Cache<String, Object> hot = factory.createHotCache("event", Event.class, e -> 100,
+                Duration.ofMinutes(10), DataSize.ofMegabytes(4));
+
+        assertEquals(DataSize.ofMegabytes(8).toBytes(), maximumOf(hot));
+        assertEquals(DataSize.ofMegabytes(56).toBytes(), maximumOf(event));
+    }
+
+    @Test
+    @DisplayName("5. 同名缓存不能重复创建")
+    void duplicateNameRejected() {
+        factory.create("event", Event.class, e -> 100);
+
+        assertThrows(IllegalStateException.class, () -> factory.create("event", Event.class, e -> 100));
+    }
+
+    private static MultiLevelCacheProperties.LocalCacheSpec spec(int weight, DataSize maxBytes) {
+        MultiLevelCacheProperties.LocalCacheSpec spec = new MultiLevelCacheProperties.LocalCacheSpec();
+        spec.setWeight(weight);
+        spec.setMaxBytes(maxBytes);
+        return spec;
+    }
+
+    private static long maximumOf(Cache<String, ?> cache) {
+        return cache.policy().eviction().orElseThrow().getMaximum();
+    }
+}
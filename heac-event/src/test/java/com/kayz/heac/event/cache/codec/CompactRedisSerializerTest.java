@@ -0,0 +1,139 @@
+package com.kayz.heac.event.cache.codec;
+
+import com.kayz.heac.event.cache.CacheEnvelope;
+import com.kayz.heac.event.config.MultiLevelCacheProperties;
+import com.kayz.heac.event.config.RedisConfig;
+import com.kayz.heac.event.entity.Event;
+import com.kayz.heac.event.enums.EventStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRedisSerializerTest {
+
+    // 与 CompactRedisSerializer 中 FLAGS 字节的 LZ4 位保持一致
+    private static final int FLAG_LZ4 = 1;
+
+    private final RedisSerializer<Object> jackson = RedisConfig.jacksonValueSerializer();
+    private MultiLevelCacheProperties.Codec codec;
+    private CompactRedisSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        codec = new MultiLevelCacheProperties.Codec();
+        codec.setBinaryEnabled(true);
+        serializer = new CompactRedisSerializer(jackson, codec);
+    }
+
+    @Test
+    @DisplayName("1. 全字段 Event 往返一致，并带有魔数和版本号")
+    void roundTripFullEvent() {
+        Event event = fullEvent("一个不长的摘要");
+
+        byte[] bytes = serializer.serialize(event);
+
+        assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(CompactRedisSerializer.FORMAT_VERSION, bytes[1]);
+        assertEquals(event, serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("2. 空字段不写入，解码后仍为 null")
+    void roundTripNullFields() {
+        Event event = Event.empty();
+        event.setId("only-id");
+        event.setStatus(EventStatus.DRAFT);
+
+        Event decoded = (Event) serializer.deserialize(serializer.serialize(event));
+
+        assertEquals(event, decoded);
+        assertNull(decoded.getTitle());
+        assertNull(decoded.getStartTime());
+        assertNull(decoded.getHeatScore());
+    }
+
+    @Test
+    @DisplayName("3. 包裹 Event 的 CacheEnvelope 保留逻辑过期时间")
+    void roundTripEnvelope() {
+        CacheEnvelope envelope = CacheEnvelope.of(fullEvent("摘要"), 1_700_000_000_123L);
+
+        Object decoded = serializer.deserialize(serializer.serialize(envelope));
+
+        assertEquals(envelope, decoded);
+    }
+
+    @Test
+    @DisplayName("4. 不认识的版本号按未命中处理")
+    void unknownVersionIsMiss() {
+        byte[] bytes = serializer.serialize(fullEvent("摘要"));
+        bytes[1] = (byte) (CompactRedisSerializer.FORMAT_VERSION + 1);
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    @DisplayName("5. 超过阈值才压缩，压缩后仍能还原")
+    void lz4OnlyAboveThreshold() {
+        Event small = fullEvent("短摘要");
+        Event large = fullEvent("热点事件摘要".repeat(200));
+
+        byte[] smallBytes = serializer.serialize(small);
+        byte[] largeBytes = serializer.serialize(large);
+
+        assertEquals(0, smallBytes[2] & FLAG_LZ4);
+        assertEquals(FLAG_LZ4, largeBytes[2] & FLAG_LZ4);
+        assertEquals(large, serializer.deserialize(largeBytes));
+
+        codec.setCompressThreshold(Integer.MAX_VALUE);
+        assertEquals(0, serializer.serialize(large)[2] & FLAG_LZ4);
+    }
+
+    @Test
+    @DisplayName("6. 能读取二进制编码之前由 Jackson 写入的数据")
+    void readsJacksonEraBytes() {
+        Event event = fullEvent("摘要");
+        CacheEnvelope envelope = CacheEnvelope.of(fullEvent("摘要"), 42L);
+
+        assertEquals(event, serializer.deserialize(jackson.serialize(event)));
+        assertEquals(envelope, serializer.deserialize(jackson.serialize(envelope)));
+    }
+
+    @Test
+    @DisplayName("7. 写开关关闭时输出 Jackson 格式，其余类型始终走 Jackson")
+    void writesJacksonWhenDisabled() {
+        Event event = fullEvent("摘要");
+        codec.setBinaryEnabled(false);
+
+        byte[] bytes = serializer.serialize(event);
+
+        assertNotEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+        assertArrayEquals(jackson.serialize(event), bytes);
+
+        codec.setBinaryEnabled(true);
+        assertArrayEquals(jackson.serialize("plain"), serializer.serialize("plain"));
+    }
+
+    private static Event fullEvent(String summary) {
+        LocalDateTime now = LocalDateTime.of(2025, 12, 4, 10, 0, 0, 123_456_789);
+        return Event.builder()
+                .id("e-1")
+                .title("标题")
+                .summary(summary)
+                .coverImg("https://img.example.com/1.png")
+                .status(EventStatus.PUBLISHED)
+                .heatScore(-3L)
+                .startTime(now)
+                .endTime(now.plusDays(1))
+                .createdBy("u-1")
+                .createTime(now.minusDays(1))
+                .updateTime(now)
+                .version(7)
+                .deleted(0)
+                .build();
+    }
+}
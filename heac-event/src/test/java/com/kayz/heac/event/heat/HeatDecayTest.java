@@ -0,0 +1,96 @@
+package com.kayz.heac.event.heat;
+
+import com.kayz.heac.event.config.HeatProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeatDecayTest {
+
+    private static final double EPS = 1e-9;
+    private static final Duration HALF_LIFE = Duration.ofHours(6);
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final HeatDecay heatDecay = new HeatDecay(properties());
+
+    @Test
+    @DisplayName("1. logAddExp(ln a, ln b) = ln(a + b)，且与参数顺序无关")
+    void logAddExpMatchesSum() {
+        double a = 3.0;
+        double b = 5.0;
+
+        assertEquals(Math.log(a + b), HeatDecay.logAddExp(Math.log(a), Math.log(b)), EPS);
+        assertEquals(HeatDecay.logAddExp(1.5, -2.0), HeatDecay.logAddExp(-2.0, 1.5), EPS);
+    }
+
+    @Test
+    @DisplayName("2. 分数很大时不溢出")
+    void logAddExpDoesNotOverflow() {
+        double result = HeatDecay.logAddExp(1000.0, 1000.0);
+
+        assertTrue(Double.isFinite(result));
+        assertEquals(1000.0 + Math.log(2), result, EPS);
+        // 差距悬殊时等于较大的一项
+        assertEquals(1000.0, HeatDecay.logAddExp(1000.0, -1000.0), EPS);
+    }
+
+    @Test
+    @DisplayName("3. 初始分数换算回当时的热度，每过一个半衰期减半")
+    void decayedHeatHalvesPerHalfLife() {
+        long t = EPOCH.plus(Duration.ofDays(30)).toEpochMilli();
+        double score = heatDecay.seed(100, t);
+
+        assertEquals(100.0, heatDecay.decayedHeat(score, t), 1e-6);
+        assertEquals(50.0, heatDecay.decayedHeat(score, t + HALF_LIFE.toMillis()), 1e-6);
+        assertEquals(25.0, heatDecay.decayedHeat(score, t + 2 * HALF_LIFE.toMillis()), 1e-6);
+    }
+
+    @Test
+    @DisplayName("4. 衰减热度随时间单调递减，同样权重的互动越晚增量越大")
+    void monotonicDecay() {
+        long t = EPOCH.plus(Duration.ofDays(1)).toEpochMilli();
+        double score = heatDecay.seed(1000, t);
+
+        double previous = Double.MAX_VALUE;
+        for (int hour = 0; hour <= 48; hour++) {
+            double heat = heatDecay.decayedHeat(score, t + Duration.ofHours(hour).toMillis());
+            assertTrue(heat < previous);
+            previous = heat;
+        }
+        assertTrue(heatDecay.logIncrement(1, t + 1) > heatDecay.logIncrement(1, t));
+    }
+
+    @Test
+    @DisplayName("5. 累加后的分数等于各次互动衰减热度之和，排序与衰减热度一致")
+    void accumulateMatchesDecayedSum() {
+        long t0 = EPOCH.plus(Duration.ofDays(10)).toEpochMilli();
+        long t1 = t0 + HALF_LIFE.toMillis();
+
+        // A：t0 时 100；B：t1 时 60。到 t1 时 A 只剩 50，B 应排在 A 前面
+        double a = heatDecay.seed(100, t0);
+        double b = heatDecay.seed(60, t1);
+        assertTrue(b > a);
+
+        // A 在 t1 又获得 20：t1 时热度 50 + 20 = 70，超过 B
+        double a2 = HeatDecay.logAddExp(a, heatDecay.logIncrement(20, t1));
+        assertEquals(70.0, heatDecay.decayedHeat(a2, t1), 1e-6);
+        assertTrue(a2 > b);
+    }
+
+    @Test
+    @DisplayName("6. 热度为 0 时初始分数仍然有限")
+    void seedZeroHeat() {
+        assertTrue(Double.isFinite(heatDecay.seed(0, EPOCH.toEpochMilli())));
+    }
+
+    private static HeatProperties properties() {
+        HeatProperties properties = new HeatProperties();
+        properties.getDecay().setHalfLife(HALF_LIFE);
+        properties.getDecay().setEpoch(EPOCH);
+        return properties;
+    }
+}
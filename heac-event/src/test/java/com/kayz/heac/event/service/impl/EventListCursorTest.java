@@ -0,0 +1,77 @@
+package com.kayz.heac.event.service.impl;
+
+import com.kayz.heac.common.exception.EventException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventListCursorTest {
+
+    @Test
+    @DisplayName("1. 有开始时间的游标编码后原样还原")
+    void roundTripTimed() {
+        EventListCursor cursor = new EventListCursor(LocalDateTime.of(2025, 12, 4, 10, 0, 0, 123_000_000), "e-42");
+
+        EventListCursor decoded = EventListCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertTrue(decoded.timed());
+    }
+
+    @Test
+    @DisplayName("2. 无开始时间的游标编码后原样还原")
+    void roundTripUntimed() {
+        EventListCursor cursor = new EventListCursor(null, "e-42");
+
+        EventListCursor decoded = EventListCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertFalse(decoded.timed());
+    }
+
+    @Test
+    @DisplayName("3. 编码结果是 URL 安全的，不带填充")
+    void encodedIsUrlSafe() {
+        String encoded = new EventListCursor(LocalDateTime.of(2025, 1, 1, 0, 0), "???>>>").encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    @DisplayName("4. 空游标表示第一页")
+    void blankIsFirstPage() {
+        assertNull(EventListCursor.decode(null));
+        assertNull(EventListCursor.decode(""));
+        assertNull(EventListCursor.decode("  "));
+    }
+
+    @ParameterizedTest
+    @DisplayName("5. 篡改或伪造的游标被拒绝")
+    @ValueSource(strings = {
+            "v2|2025-12-04T10:00|e-1",
+            "v1|2025-12-04T10:00|",
+            "v1|2025-12-04T10:00",
+            "v1|2025-12-04T10:00|e-1|extra",
+            "v1|not-a-time|e-1",
+            "garbage"
+    })
+    void tamperedRejected(String raw) {
+        String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(EventException.class, () -> EventListCursor.decode(cursor));
+    }
+
+    @Test
+    @DisplayName("6. 不是合法 Base64URL 的游标被拒绝")
+    void invalidBase64Rejected() {
+        assertThrows(EventException.class, () -> EventListCursor.decode("***"));
+        assertThrows(EventException.class, () -> EventListCursor.decode("a+b/c="));
+    }
+}